@@ -2,6 +2,8 @@ plugins {
     java
     id("org.springframework.boot") version "3.4.5"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
+    id("org.graalvm.buildtools.native") version "0.10.6"
 }
 
 group = "org.example"
@@ -27,12 +29,19 @@ repositories {
 
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.springframework.boot:spring-boot-starter-aop")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.6.0")
     implementation("org.springframework.boot:spring-boot-starter-security:${springVersion}")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa:${springVersion}")
     implementation("com.slm-dev:jsonapi-simple:1.12.0")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
     implementation("org.mapstruct:mapstruct:1.6.2")
     implementation("com.h2database:h2:2.2.222")
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+    implementation("com.github.ben-manes.caffeine:jcache")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     annotationProcessor("org.mapstruct:mapstruct-processor:1.6.2")
     annotationProcessor("org.projectlombok:lombok-mapstruct-binding:0.2.0")
@@ -42,10 +51,78 @@ dependencies {
 
     testImplementation("org.springframework.boot:spring-boot-starter-test:${springVersion}")
     testImplementation("org.springframework.security:spring-security-test:6.4.4")
+    testImplementation("org.hdrhistogram:HdrHistogram:2.2.2")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
+jmh {
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
+
+graalvmNative {
+    binaries {
+        named("main") {
+            imageName = "store-demo"
+            buildArgs.add("-H:+ReportExceptionStackTraces")
+        }
+    }
+    metadataRepository {
+        enabled = true
+    }
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
 
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("stress", "load", "smoke")
+    }
+}
+
+val stressTest by tasks.registering(Test::class) {
+    description = "Runs the concurrent checkout stress suite against the Spring context on H2."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("stress")
+    }
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("stress.") }.mapKeys { it.key.toString() })
+    testLogging {
+        showStandardStreams = true
+    }
+}
+
+val loadTest by tasks.registering(Test::class) {
+    description = "Runs the open-model HTTP load scenarios and writes build/reports/load."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    systemProperty("load.reportDir", layout.buildDirectory.dir("reports/load").get().asFile.absolutePath)
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("load.") }.mapKeys { it.key.toString() })
+    testLogging {
+        showStandardStreams = true
+    }
+}
+
+val smokeTest by tasks.registering(Test::class) {
+    description = "Runs the controller smoke test against an already running build, e.g. the native binary (-Dsmoke.baseUrl=...)."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("smoke")
+    }
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("smoke.") }.mapKeys { it.key.toString() })
+    outputs.upToDateWhen { false }
+}
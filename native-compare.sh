@@ -0,0 +1,57 @@
+#!/bin/bash
+
+# Builds the JVM jar and the GraalVM native binary, runs the controller smoke test against the native binary,
+# and compares time-to-ready and resident memory (idle and after the smoke run) of both.
+# Requires a GraalVM JDK as JAVA_HOME for nativeCompile. Usage: ./native-compare.sh
+
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PORT=${PORT:-8193}
+WORK_DIR="${SCRIPT_DIR}/build/native-compare"
+REPORT="${WORK_DIR}/comparison.txt"
+BASE_URL="http://localhost:${PORT}"
+APP_ARGS="--server.port=${PORT} --management.endpoint.health.probes.enabled=true"
+
+cd "${SCRIPT_DIR}"
+mkdir -p "${WORK_DIR}"
+
+echo "Building boot jar and native image ..."
+./gradlew -q bootJar nativeCompile
+JAR=$(ls build/libs/*.jar | grep -v -- '-plain.jar' | head -1)
+NATIVE=build/native/nativeCompile/store-demo
+
+rss_kb() {
+	ps -o rss= -p "$1" | tr -d ' '
+}
+
+# starts the given command, prints "<ms to ready> <idle rss kb> <rss kb after smoke test>"
+profile() {
+	local label=$1
+	shift
+	local started=$(date +%s%N)
+	"$@" ${APP_ARGS} > "${WORK_DIR}/${label}.log" 2>&1 &
+	local pid=$!
+	until curl -sf "${BASE_URL}/actuator/health/readiness" > /dev/null; do
+		if ! kill -0 "${pid}" 2> /dev/null; then
+			echo "${label} exited before becoming ready, see ${WORK_DIR}/${label}.log" >&2
+			exit 1
+		fi
+		sleep 0.02
+	done
+	local ready=$(date +%s%N)
+	local idle_rss=$(rss_kb "${pid}")
+	local smoke_result=passed
+	./gradlew -q smokeTest -Dsmoke.baseUrl="${BASE_URL}" > "${WORK_DIR}/${label}-smoke.log" 2>&1 || smoke_result=FAILED
+	local loaded_rss=$(rss_kb "${pid}")
+	kill "${pid}"
+	wait "${pid}" 2> /dev/null || true
+	printf '%-8s ready %6s ms   rss idle %7s KB   rss after smoke %7s KB   smoke %s\n' \
+		"${label}" $(( (ready - started) / 1000000 )) "${idle_rss}" "${loaded_rss}" "${smoke_result}" | tee -a "${REPORT}"
+}
+
+: > "${REPORT}"
+profile jvm java -jar "${JAR}"
+profile native "${NATIVE}"
+
+echo "Comparison written to ${REPORT}"
@@ -0,0 +1,41 @@
+package org.example.storedemo.benchmark;
+
+import org.example.storedemo.service.FakeRedisService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// FakeRedisService.tryLock/unlock on one shared key (every scheduler instance racing for the same lock)
+// and on per-thread keys, as a baseline without contention
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockContentionBenchmark {
+
+	private final FakeRedisService fakeRedisService = new FakeRedisService();
+
+	@State(Scope.Thread)
+	public static class ThreadKey {
+		final String key = "lock-" + Thread.currentThread().getId();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean sharedKey() {
+		boolean acquired = fakeRedisService.tryLock("invalidateExpiredOrders");
+		if (acquired) {
+			fakeRedisService.unlock("invalidateExpiredOrders");
+		}
+		return acquired;
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean perThreadKey(ThreadKey threadKey) {
+		boolean acquired = fakeRedisService.tryLock(threadKey.key);
+		if (acquired) {
+			fakeRedisService.unlock(threadKey.key);
+		}
+		return acquired;
+	}
+}
@@ -0,0 +1,112 @@
+package org.example.storedemo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.slmdev.jsonapi.simple.response.Data;
+import com.slmdev.jsonapi.simple.response.Response;
+import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.response.OrderSummaryDto;
+import org.example.storedemo.entity.OrderEntity;
+import org.example.storedemo.entity.OrderItemEntity;
+import org.example.storedemo.entity.OrderStatus;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.mapper.OrderMapper;
+import org.example.storedemo.mapper.ProductMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// entity -> DTO mapping and the JSON:API envelope built by every controller
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+	@Param({ "1", "5", "20" })
+	public int itemsPerOrder;
+
+	private final OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+	private final ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+	private ObjectMapper objectMapper;
+
+	private OrderEntity order;
+	private ProductEntity product;
+	private List<ProductDto> productPage;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+
+		Random random = new Random(5);
+		LocalDateTime now = LocalDateTime.now();
+		order = new OrderEntity();
+		order.setId(UUID.randomUUID());
+		order.setStatus(OrderStatus.CREATED);
+		order.setCreatedAt(now);
+		order.setExpiresAt(now.plusMinutes(30));
+
+		List<OrderItemEntity> items = new ArrayList<>();
+		for (int i = 0; i < itemsPerOrder; i++) {
+			ProductEntity itemProduct = newProduct("Product " + i, random);
+			int quantity = 1 + random.nextInt(4);
+			items.add(OrderItemEntity.builder()
+					.id(UUID.randomUUID())
+					.orderEntity(order)
+					.productEntity(itemProduct)
+					.quantity(quantity)
+					.priceSnapshot(itemProduct.getPrice().multiply(BigDecimal.valueOf(quantity)))
+					.build());
+		}
+		order.setItems(items);
+
+		product = newProduct("Single", random);
+		productPage = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			productPage.add(productMapper.toDto(newProduct("Page " + i, random)));
+		}
+	}
+
+	@Benchmark
+	public OrderSummaryDto orderToSummaryDto() {
+		return orderMapper.toSummaryDto(order);
+	}
+
+	@Benchmark
+	public ProductDto productToDto() {
+		return productMapper.toDto(product);
+	}
+
+	@Benchmark
+	public Response<Data<OrderSummaryDto>> buildOrderResponse() {
+		return new Response.ResponseBuilder<Data<OrderSummaryDto>, OrderSummaryDto>()
+				.data(orderMapper.toSummaryDto(order))
+				.build();
+	}
+
+	@Benchmark
+	public byte[] buildAndSerializeProductPage() throws Exception {
+		Response<Data<List<ProductDto>>> response = new Response.ResponseBuilder<Data<List<ProductDto>>, List<ProductDto>>()
+				.data(productPage)
+				.build();
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	private static ProductEntity newProduct(String name, Random random) {
+		ProductEntity entity = new ProductEntity();
+		entity.setId(UUID.randomUUID());
+		entity.setName(name);
+		entity.setPrice(BigDecimal.valueOf(random.nextInt(10_000), 2));
+		entity.setStockQuantity(random.nextInt(1_000));
+		return entity;
+	}
+}
@@ -0,0 +1,100 @@
+package org.example.storedemo.benchmark;
+
+import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.entity.OrderEntity;
+import org.example.storedemo.entity.OrderItemEntity;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.service.OrderQuantities;
+import org.example.storedemo.util.UuidIntMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Allocation per order of the quantity bookkeeping that OrderService runs on create (OrderQuantities.of(items)
+// plus a lookup per fetched product) and on pay/cancel (OrderQuantities.of(order)), against the boxed
+// Map/stream code create-order used before. Run with ./gradlew jmh (the gc profiler is on) and compare
+// gc.alloc.rate.norm in bytes/op; multiplied by 5000 it is the allocation rate at 5k orders/sec.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderQuantityBenchmark {
+
+	@Param({ "1", "5", "20" })
+	public int itemsPerOrder;
+
+	private List<OrderCreateItemDto> items;
+	private List<ProductEntity> products;
+	private OrderEntity order;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(11);
+		items = new ArrayList<>();
+		products = new ArrayList<>();
+		order = new OrderEntity();
+		for (int i = 0; i < itemsPerOrder; i++) {
+			ProductEntity product = new ProductEntity();
+			product.setId(UUID.randomUUID());
+			product.setStockQuantity(100);
+			products.add(product);
+			int quantity = 1 + random.nextInt(5);
+			items.add(new OrderCreateItemDto(product.getId(), quantity));
+			order.getItems().add(OrderItemEntity.builder().productEntity(product).quantity(quantity).build());
+		}
+	}
+
+	@Benchmark
+	public void boxedMapAndStreams(Blackhole blackhole) {
+		Map<UUID, Integer> quantityMap = new HashMap<>();
+		for (OrderCreateItemDto item : items) {
+			quantityMap.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+		}
+		Set<UUID> foundIds = products.stream().map(ProductEntity::getId).collect(Collectors.toSet());
+		List<UUID> missing = quantityMap.keySet().stream().filter(id -> !foundIds.contains(id)).toList();
+		long outOfStock = 0;
+		for (ProductEntity product : products) {
+			if (product.getStockQuantity() < quantityMap.get(product.getId())) {
+				outOfStock++;
+			}
+		}
+		blackhole.consume(missing);
+		blackhole.consume(outOfStock);
+	}
+
+	@Benchmark
+	public void createOrderQuantities(Blackhole blackhole) {
+		UuidIntMap quantities = OrderQuantities.of(items);
+		try {
+			long outOfStock = 0;
+			for (int i = 0; i < products.size(); i++) {
+				ProductEntity product = products.get(i);
+				if (product.getStockQuantity() < quantities.get(product.getId(), 0)) {
+					outOfStock++;
+				}
+			}
+			blackhole.consume(quantities.size() == products.size());
+			blackhole.consume(outOfStock);
+		} finally {
+			OrderQuantities.release(quantities);
+		}
+	}
+
+	@Benchmark
+	public void payOrderQuantities(Blackhole blackhole) {
+		UuidIntMap quantities = OrderQuantities.of(order);
+		try {
+			blackhole.consume(quantities.size());
+		} finally {
+			OrderQuantities.release(quantities);
+		}
+	}
+}
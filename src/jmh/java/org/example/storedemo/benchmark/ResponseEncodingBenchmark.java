@@ -0,0 +1,84 @@
+package org.example.storedemo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.slmdev.jsonapi.simple.response.Data;
+import com.slmdev.jsonapi.simple.response.Response;
+import org.example.storedemo.dto.OrderSummaryItemDto;
+import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.response.OrderSummaryDto;
+import org.example.storedemo.entity.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// encode cost of a JSON:API order/product page as JSON versus CBOR; run with ./gradlew jmh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseEncodingBenchmark {
+
+	@Param({ "json", "cbor" })
+	public String format;
+
+	@Param({ "8", "50" })
+	public int pageSize;
+
+	private ObjectMapper mapper;
+	private Response<Data<List<OrderSummaryDto>>> orderPage;
+	private Response<Data<List<ProductDto>>> productPage;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		if (format.equals("cbor")) {
+			builder.factory(new CBORFactory());
+		}
+		mapper = builder.build();
+
+		Random random = new Random(42);
+		List<ProductDto> products = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			products.add(new ProductDto(UUID.randomUUID(), "Product " + i,
+					BigDecimal.valueOf(random.nextInt(10_000), 2), random.nextInt(1_000)));
+		}
+
+		List<OrderSummaryDto> orders = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < pageSize; i++) {
+			List<OrderSummaryItemDto> items = new ArrayList<>();
+			for (int j = 0, count = 1 + random.nextInt(5); j < count; j++) {
+				ProductDto product = products.get(random.nextInt(products.size()));
+				int quantity = 1 + random.nextInt(4);
+				items.add(new OrderSummaryItemDto(product.getId(), product.getName(), product.getPrice(), quantity,
+						product.getPrice().multiply(BigDecimal.valueOf(quantity))));
+			}
+			orders.add(new OrderSummaryDto(UUID.randomUUID(), OrderStatus.values()[random.nextInt(OrderStatus.values().length)],
+					now.minusMinutes(i), now.plusMinutes(30 - i), null, items));
+		}
+
+		orderPage = new Response.ResponseBuilder<Data<List<OrderSummaryDto>>, List<OrderSummaryDto>>().data(orders).build();
+		productPage = new Response.ResponseBuilder<Data<List<ProductDto>>, List<ProductDto>>()
+				.data(products.subList(0, pageSize))
+				.build();
+	}
+
+	@Benchmark
+	public byte[] encodeOrderPage() throws Exception {
+		return mapper.writeValueAsBytes(orderPage);
+	}
+
+	@Benchmark
+	public byte[] encodeProductPage() throws Exception {
+		return mapper.writeValueAsBytes(productPage);
+	}
+}
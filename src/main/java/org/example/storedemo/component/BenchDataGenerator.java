@@ -0,0 +1,337 @@
+package org.example.storedemo.component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.storedemo.entity.OrderStatus;
+import org.example.storedemo.service.ProductCacheInvalidator;
+import org.example.storedemo.util.ZipfSampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+// Replaces DataInitializer under the bench-data profile with a dataset large enough for indexes and caches to matter.
+// Counters on products are derived from the generated orders, so the seeded state is one the services could have produced.
+@Slf4j
+@Component
+@Profile("bench-data")
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class BenchDataGenerator {
+
+	private static final String INSERT_PRODUCT_SQL = """
+			INSERT INTO products (id, name, price, stock_quantity, reserved_quantity, sold_quantity, active_order_count, version)
+			VALUES (?, ?, ?, ?, 0, 0, 0, 0)
+			""";
+	private static final String INSERT_ORDER_SQL = """
+			INSERT INTO orders (id, status, created_at, expires_at, paid_at, version)
+			VALUES (?, ?, ?, ?, ?, 0)
+			""";
+	private static final String INSERT_ORDER_ITEM_SQL = """
+			INSERT INTO order_items (id, order_id, product_id, quantity, price_snapshot)
+			VALUES (?, ?, ?, ?, ?)
+			""";
+	private static final String UPDATE_COUNTERS_SQL = """
+			UPDATE products SET reserved_quantity = ?, sold_quantity = ?, active_order_count = ?
+			WHERE id = ?
+			""";
+
+	// same window OrderService gives a new order
+	private static final long ORDER_TTL_SECONDS = Duration.ofMinutes(30).toSeconds();
+	private static final int MAX_ITEM_QUANTITY = 5;
+	private static final int MAX_AVAILABLE_STOCK = 1000;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ProductCacheInvalidator productCacheInvalidator;
+	private final Clock clock;
+
+	@Value("${app.bench-data.products:1000000}")
+	private int productCount;
+	@Value("${app.bench-data.orders:2000000}")
+	private int orderCount;
+	@Value("${app.bench-data.max-items-per-order:4}")
+	private int maxItemsPerOrder;
+	@Value("${app.bench-data.zipf-exponent:1.1}")
+	private double zipfExponent;
+	@Value("${app.bench-data.history-days:90}")
+	private int historyDays;
+	@Value("${app.bench-data.batch-size:1000}")
+	private int batchSize;
+	@Value("${app.bench-data.threads:0}")
+	private int threads;
+	@Value("${app.bench-data.seed:42}")
+	private long seed;
+	@Value("${app.bench-data.snapshot:}")
+	private String snapshot;
+
+	private UUID[] productIds;
+	private long[] priceCents;
+	private int[] productByRank;
+	private AtomicIntegerArray reserved;
+	private AtomicIntegerArray sold;
+	private AtomicIntegerArray activeOrders;
+
+	@PostConstruct
+	public void init() {
+		Path snapshotFile = snapshot.isBlank() ? null : Path.of(snapshot);
+		if (snapshotFile != null && Files.isRegularFile(snapshotFile)) {
+			Instant started = clock.instant();
+			restoreSnapshot(snapshotFile);
+			log.info("Restored bench dataset from {} in {} ms", snapshotFile,
+					Duration.between(started, clock.instant()).toMillis());
+			return;
+		}
+
+		generate();
+		if (snapshotFile != null) {
+			writeSnapshot(snapshotFile);
+			log.info("Wrote bench dataset snapshot to {}", snapshotFile);
+		}
+	}
+
+	void generate() {
+		int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try {
+			Instant started = clock.instant();
+			prepareProducts();
+			inChunks(executor, productCount, this::insertProducts);
+			log.info("Inserted {} products in {} ms", productCount, Duration.between(started, clock.instant()).toMillis());
+
+			started = clock.instant();
+			LocalDateTime now = LocalDateTime.now(clock);
+			ZipfSampler popularity = new ZipfSampler(productCount, zipfExponent);
+			inChunks(executor, orderCount, chunk -> insertOrders(chunk, popularity, now));
+			log.info("Inserted {} orders in {} ms", orderCount, Duration.between(started, clock.instant()).toMillis());
+
+			started = clock.instant();
+			inChunks(executor, productCount, this::updateCounters);
+			log.info("Updated product counters in {} ms", Duration.between(started, clock.instant()).toMillis());
+			productCacheInvalidator.evict();
+		} finally {
+			executor.shutdownNow();
+			releaseScratch();
+		}
+	}
+
+	// H2 only: SCRIPT DROP lets RUNSCRIPT replace the tables Hibernate already created on startup
+	void writeSnapshot(Path file) {
+		try {
+			if (file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to create snapshot directory for " + file, e);
+		}
+		jdbcTemplate.execute("SCRIPT DROP TO '" + sqlLiteral(file) + "' COMPRESSION GZIP");
+	}
+
+	void restoreSnapshot(Path file) {
+		jdbcTemplate.execute("RUNSCRIPT FROM '" + sqlLiteral(file) + "' COMPRESSION GZIP");
+		productCacheInvalidator.evict();
+	}
+
+	private void prepareProducts() {
+		SplittableRandom random = new SplittableRandom(seed);
+		productIds = new UUID[productCount];
+		priceCents = new long[productCount];
+		productByRank = new int[productCount];
+		for (int i = 0; i < productCount; i++) {
+			productIds[i] = randomUuid(random);
+			priceCents[i] = 50 + random.nextLong(50_000);
+			productByRank[i] = i;
+		}
+		// popularity is unrelated to insertion order, so the hot products are spread over the listing pages
+		for (int i = productCount - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = productByRank[i];
+			productByRank[i] = productByRank[j];
+			productByRank[j] = swap;
+		}
+		reserved = new AtomicIntegerArray(productCount);
+		sold = new AtomicIntegerArray(productCount);
+		activeOrders = new AtomicIntegerArray(productCount);
+	}
+
+	private void insertProducts(int chunk) {
+		int from = chunk * batchSize;
+		int to = Math.min(from + batchSize, productCount);
+		SplittableRandom random = new SplittableRandom(seed ^ (0x5DEECE66DL * (chunk + 1)));
+		List<Object[]> rows = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			rows.add(new Object[]{
+					productIds[i],
+					String.format("Bench product %07d", i),
+					BigDecimal.valueOf(priceCents[i], 2),
+					random.nextInt(MAX_AVAILABLE_STOCK + 1)
+			});
+		}
+		transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, rows));
+	}
+
+	private void insertOrders(int chunk, ZipfSampler popularity, LocalDateTime now) {
+		int from = chunk * batchSize;
+		int to = Math.min(from + batchSize, orderCount);
+		SplittableRandom random = new SplittableRandom(seed + 31L * (chunk + 1));
+		List<Object[]> orders = new ArrayList<>(to - from);
+		List<Object[]> items = new ArrayList<>((to - from) * maxItemsPerOrder);
+		int[] picked = new int[maxItemsPerOrder];
+
+		for (int i = from; i < to; i++) {
+			UUID orderId = randomUuid(random);
+			OrderStatus status = randomStatus(random);
+			LocalDateTime createdAt = status == OrderStatus.CREATED
+					// open orders are younger than their TTL, so expiry keeps trickling in during a run
+					? now.minusSeconds(random.nextLong(ORDER_TTL_SECONDS))
+					: now.minusSeconds(ORDER_TTL_SECONDS + random.nextLong(historyDays * 86_400L));
+			LocalDateTime expiresAt = createdAt.plusSeconds(ORDER_TTL_SECONDS);
+			LocalDateTime paidAt = status == OrderStatus.PAID
+					? createdAt.plusSeconds(random.nextLong(ORDER_TTL_SECONDS))
+					: null;
+			orders.add(new Object[]{
+					orderId,
+					status.name(),
+					Timestamp.valueOf(createdAt),
+					Timestamp.valueOf(expiresAt),
+					paidAt == null ? null : Timestamp.valueOf(paidAt)
+			});
+
+			int itemCount = 1 + random.nextInt(Math.min(maxItemsPerOrder, productCount));
+			for (int n = 0; n < itemCount; n++) {
+				int product = distinctProduct(popularity, random, picked, n);
+				picked[n] = product;
+				int quantity = 1 + random.nextInt(MAX_ITEM_QUANTITY);
+				items.add(new Object[]{
+						randomUuid(random),
+						orderId,
+						productIds[product],
+						quantity,
+						BigDecimal.valueOf(priceCents[product] * quantity, 2) // line total, as OrderService stores it
+				});
+				countItem(status, product, quantity);
+			}
+		}
+
+		transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orders);
+			jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM_SQL, items);
+		});
+	}
+
+	private void updateCounters(int chunk) {
+		int from = chunk * batchSize;
+		int to = Math.min(from + batchSize, productCount);
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			if (activeOrders.get(i) == 0) {
+				continue;
+			}
+			rows.add(new Object[]{reserved.get(i), sold.get(i), activeOrders.get(i), productIds[i]});
+		}
+		if (!rows.isEmpty()) {
+			transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_COUNTERS_SQL, rows));
+		}
+	}
+
+	// mirrors StockMovement: CREATED holds a reservation, PAID has sold, both count as active in the hot tables
+	private void countItem(OrderStatus status, int product, int quantity) {
+		switch (status) {
+			case CREATED -> {
+				reserved.addAndGet(product, quantity);
+				activeOrders.incrementAndGet(product);
+			}
+			case PAID -> {
+				sold.addAndGet(product, quantity);
+				activeOrders.incrementAndGet(product);
+			}
+			default -> {
+			}
+		}
+	}
+
+	private int distinctProduct(ZipfSampler popularity, SplittableRandom random, int[] picked, int count) {
+		while (true) {
+			int product = productByRank[popularity.sample(random)];
+			boolean duplicate = false;
+			for (int i = 0; i < count && !duplicate; i++) {
+				duplicate = picked[i] == product;
+			}
+			if (!duplicate) {
+				return product;
+			}
+		}
+	}
+
+	private void inChunks(ExecutorService executor, int total, IntConsumer task) {
+		int chunks = (total + batchSize - 1) / batchSize;
+		List<Future<?>> futures = new ArrayList<>(chunks);
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			int current = chunk;
+			futures.add(executor.submit(() -> task.accept(current)));
+		}
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while generating bench data", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Failed to generate bench data", e.getCause());
+		}
+	}
+
+	private void releaseScratch() {
+		productIds = null;
+		priceCents = null;
+		productByRank = null;
+		reserved = null;
+		sold = null;
+		activeOrders = null;
+	}
+
+	private static OrderStatus randomStatus(SplittableRandom random) {
+		int roll = random.nextInt(100);
+		if (roll < 10) {
+			return OrderStatus.CREATED;
+		}
+		if (roll < 65) {
+			return OrderStatus.PAID;
+		}
+		return roll < 80 ? OrderStatus.CANCELED : OrderStatus.EXPIRED;
+	}
+
+	// version 4 layout, but reproducible from the seed
+	private static UUID randomUuid(SplittableRandom random) {
+		long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+		long lsb = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+		return new UUID(msb, lsb);
+	}
+
+	private static String sqlLiteral(Path file) {
+		return file.toAbsolutePath().toString().replace("'", "''");
+	}
+}
@@ -2,80 +2,98 @@ package org.example.storedemo.component;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.example.storedemo.dto.request.OrderCreateItemDto;
-import org.example.storedemo.dto.ProductDto;
-import org.example.storedemo.dto.request.ProductRequest;
-import org.example.storedemo.dto.response.ProductCreateResponse;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.repository.ProductRepository;
 import org.example.storedemo.service.OrderService;
-import org.example.storedemo.service.ProductService;
+import org.example.storedemo.service.ProductImportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Component
+@Profile("!bench-data")
 @RequiredArgsConstructor
 public class DataInitializer {
 
-	private final ProductService productService;
+	private final ProductImportService productImportService;
+	private final ProductRepository productRepository;
 	private final OrderService orderService;
+	private final SeedingHealthIndicator seedingHealthIndicator;
+	private final Clock clock;
+
+	@Value("${app.startup.async-seeding:false}")
+	private boolean asyncSeeding;
 
 	@PostConstruct
 	public void init() {
+		if (asyncSeeding) {
+			// readiness must already report the gate when the web server comes up during refresh
+			seedingHealthIndicator.markRunning(clock.instant());
+			return;
+		}
+		seed();
+	}
+
+	@EventListener(ApplicationStartedEvent.class)
+	public void seedInBackground() {
+		if (!asyncSeeding) {
+			return;
+		}
+		Thread seeding = new Thread(() -> {
+			try {
+				seed();
+				seedingHealthIndicator.markDone(clock.instant());
+				log.info("Background seeding finished");
+			} catch (RuntimeException e) {
+				seedingHealthIndicator.markFailed(e);
+				log.error("Background seeding failed", e);
+			}
+		}, "data-seeding");
+		seeding.setDaemon(true);
+		seeding.start();
+	}
+
+	private void seed() {
 		// add products
-		List<ProductRequest> productRequests = readProductsFromClasspath("mockData/products.csv");
-		List<ProductCreateResponse> createdProductsResponse = productRequests.stream().map(productService::createProduct).toList();
-		List<ProductDto> createdProducts = createdProductsResponse.stream()
-				.map(ProductCreateResponse::getCreatedProducts)
-				.toList()
+		try (InputStream csv = new ClassPathResource("mockData/products.csv").getInputStream()) {
+			productImportService.importProducts(csv);
+		} catch (IOException e) {
+			log.error("Failed to read CSV from classpath: {}", e.getMessage());
+		}
+
+		Map<String, UUID> productIds = productRepository.findAllByNameIn(List.of("Milk", "Apples", "Bananas", "Bread", "Eggs"))
 				.stream()
-				.flatMap(List::stream)
-				.toList();
+				.collect(Collectors.toMap(ProductEntity::getName, ProductEntity::getId));
 
 		List<OrderCreateItemDto> onePositionOrderItems = List.of(
-				new OrderCreateItemDto(createdProducts.stream().filter(it -> it.getName().equals("Milk")).findFirst().get().getId(), 5)
+				new OrderCreateItemDto(productIds.get("Milk"), 5)
 		);
 		List<OrderCreateItemDto> twoPositionsOrderItems = List.of(
-				new OrderCreateItemDto(createdProducts.stream().filter(it -> it.getName().equals("Apples")).findFirst().get().getId(), 10),
-				new OrderCreateItemDto(createdProducts.stream().filter(it -> it.getName().equals("Bananas")).findFirst().get().getId(), 20)
+				new OrderCreateItemDto(productIds.get("Apples"), 10),
+				new OrderCreateItemDto(productIds.get("Bananas"), 20)
 		);
 		List<OrderCreateItemDto> threePositionsOrderItems = List.of(
-				new OrderCreateItemDto(createdProducts.stream().filter(it -> it.getName().equals("Milk")).findFirst().get().getId(), 5),
-				new OrderCreateItemDto(createdProducts.stream().filter(it -> it.getName().equals("Bread")).findFirst().get().getId(), 2),
-				new OrderCreateItemDto(createdProducts.stream().filter(it -> it.getName().equals("Eggs")).findFirst().get().getId(), 12)
+				new OrderCreateItemDto(productIds.get("Milk"), 5),
+				new OrderCreateItemDto(productIds.get("Bread"), 2),
+				new OrderCreateItemDto(productIds.get("Eggs"), 12)
 		);
 
 		orderService.createOrder(onePositionOrderItems);
 		orderService.createOrder(twoPositionsOrderItems);
 		orderService.createOrder(threePositionsOrderItems);
 	}
-
-	private List<ProductRequest> readProductsFromClasspath(String resourcePath) {
-		List<ProductRequest> products = new ArrayList<>();
-
-		try (BufferedReader reader = new BufferedReader(
-				new InputStreamReader(new ClassPathResource(resourcePath).getInputStream()))) {
-
-			String line;
-			while ((line = reader.readLine()) != null) {
-				String[] tokens = line.split(",");
-				if (tokens.length != 3) continue;
-
-				String name = tokens[0].trim();
-				BigDecimal price = new BigDecimal(tokens[1].trim());
-				int quantity = Integer.parseInt(tokens[2].trim());
-
-				products.add(new ProductRequest(name, price, quantity));
-			}
-
-		} catch (Exception e) {
-			System.err.println("Failed to read CSV from classpath: " + e.getMessage());
-		}
-
-		return products;
-	}
 }
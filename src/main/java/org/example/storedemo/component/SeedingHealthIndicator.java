@@ -0,0 +1,54 @@
+package org.example.storedemo.component;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Part of the readiness group: the app is live while seeding runs in the background, but not ready for traffic.
+@Component
+public class SeedingHealthIndicator implements HealthIndicator {
+
+	private enum State {
+		NOT_REQUIRED,
+		RUNNING,
+		DONE,
+		FAILED
+	}
+
+	private volatile State state = State.NOT_REQUIRED;
+	private volatile Instant startedAt;
+	private volatile Duration took;
+	private volatile Throwable failure;
+
+	public void markRunning(Instant now) {
+		startedAt = now;
+		state = State.RUNNING;
+	}
+
+	public void markDone(Instant now) {
+		took = Duration.between(startedAt, now);
+		state = State.DONE;
+	}
+
+	public void markFailed(Throwable error) {
+		failure = error;
+		state = State.FAILED;
+	}
+
+	public boolean isReady() {
+		return state == State.NOT_REQUIRED || state == State.DONE;
+	}
+
+	@Override
+	public Health health() {
+		return switch (state) {
+			case NOT_REQUIRED -> Health.up().build();
+			case RUNNING -> Health.outOfService().withDetail("startedAt", startedAt.toString()).build();
+			case DONE -> Health.up().withDetail("tookMs", took.toMillis()).build();
+			case FAILED -> Health.down(failure instanceof Exception e ? e : new IllegalStateException(failure)).build();
+		};
+	}
+}
@@ -0,0 +1,54 @@
+package org.example.storedemo.component;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Part of the readiness group: traffic is held back until the hot paths have been through the JIT.
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+	// p99 of whole warmup cycles over the first and the last window of iterations; request latency is in store.orders.*
+	public record WarmupResult(int iterations, Duration took, double cycleP99FirstMs, double cycleP99LastMs) {}
+
+	private volatile boolean running;
+	private volatile Instant startedAt;
+	private volatile WarmupResult result;
+
+	public void markRunning(Instant now) {
+		startedAt = now;
+		running = true;
+	}
+
+	public void markDone(WarmupResult warmupResult) {
+		result = warmupResult;
+		running = false;
+	}
+
+	public boolean isReady() {
+		return !running;
+	}
+
+	public WarmupResult getResult() {
+		return result;
+	}
+
+	@Override
+	public Health health() {
+		if (running) {
+			return Health.outOfService().withDetail("startedAt", startedAt.toString()).build();
+		}
+		if (result == null) {
+			return Health.up().build();
+		}
+		return Health.up()
+				.withDetail("iterations", result.iterations())
+				.withDetail("tookMs", result.took().toMillis())
+				.withDetail("cycleP99FirstWindowMs", result.cycleP99FirstMs())
+				.withDetail("cycleP99LastWindowMs", result.cycleP99LastMs())
+				.build();
+	}
+}
@@ -0,0 +1,153 @@
+package org.example.storedemo.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slmdev.jsonapi.simple.response.Data;
+import com.slmdev.jsonapi.simple.response.Response;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.dto.request.SparseFieldset;
+import org.example.storedemo.dto.response.OrderSummaryDto;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.repository.ProductRepository;
+import org.example.storedemo.service.OrderService;
+import org.example.storedemo.service.ProductService;
+import org.example.storedemo.util.WarmupContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+// Runs the create/pay/cancel/list paths in transactions that always roll back, so the JIT has compiled them
+// before the readiness probe lets real traffic in. Nothing it writes is ever committed, and it is not timed or
+// counted by the store.orders.* and store.inventory.* meters, which only describe real requests.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmupRunner {
+
+	private static final int MAX_WINDOW = 100;
+	private static final PageRequest WARMUP_PAGE = PageRequest.of(0, 8, Sort.by("name"));
+
+	private final OrderService orderService;
+	private final ProductService productService;
+	private final ProductRepository productRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final SeedingHealthIndicator seedingHealthIndicator;
+	private final WarmupHealthIndicator warmupHealthIndicator;
+	private final Clock clock;
+
+	@Value("${app.warmup.enabled:false}")
+	private boolean enabled;
+	@Value("${app.warmup.max-iterations:1000}")
+	private int maxIterations;
+	@Value("${app.warmup.max-duration-ms:20000}")
+	private long maxDurationMs;
+
+	@PostConstruct
+	public void init() {
+		if (enabled) {
+			warmupHealthIndicator.markRunning(clock.instant());
+		}
+	}
+
+	@EventListener(ApplicationStartedEvent.class)
+	public void warmUpInBackground() {
+		if (!enabled) {
+			return;
+		}
+		Thread warmup = new Thread(() -> WarmupContext.run(this::warmUp), "jit-warmup");
+		warmup.setDaemon(true);
+		warmup.start();
+	}
+
+	void warmUp() {
+		Instant started = clock.instant();
+		Instant deadline = started.plusMillis(maxDurationMs);
+		long[] latencies = new long[maxIterations];
+		int iterations = 0;
+		try {
+			// do not compete with background seeding for connections and product rows
+			while (!seedingHealthIndicator.isReady() && clock.instant().isBefore(deadline)) {
+				Thread.sleep(50);
+			}
+			while (iterations < maxIterations && clock.instant().isBefore(deadline)) {
+				long cycleStart = System.nanoTime();
+				transactionTemplate.executeWithoutResult(status -> {
+					runCycle();
+					status.setRollbackOnly();
+				});
+				latencies[iterations++] = System.nanoTime() - cycleStart;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException e) {
+			// a broken warmup must not keep the instance out of rotation
+			log.warn("Warmup stopped after {} iterations", iterations, e);
+		}
+
+		int window = Math.max(1, Math.min(MAX_WINDOW, iterations / 10));
+		WarmupHealthIndicator.WarmupResult result = new WarmupHealthIndicator.WarmupResult(
+				iterations,
+				Duration.between(started, clock.instant()),
+				p99Millis(latencies, 0, Math.min(window, iterations)),
+				p99Millis(latencies, Math.max(0, iterations - window), iterations)
+		);
+		warmupHealthIndicator.markDone(result);
+		// p99 of whole synthetic cycles (several rolled-back calls each), not of request latency
+		log.info("Warmup finished: {} cycles in {} ms, synthetic cycle p99 {} ms in the first window -> {} ms in the last",
+				result.iterations(), result.took().toMillis(), result.cycleP99FirstMs(), result.cycleP99LastMs());
+	}
+
+	private void runCycle() {
+		ProductEntity product = new ProductEntity();
+		product.setId(UUID.randomUUID());
+		product.setName("Warmup " + UUID.randomUUID());
+		product.setPrice(new BigDecimal("1.99"));
+		product.setStockQuantity(100);
+		productRepository.save(product);
+		List<OrderCreateItemDto> items = List.of(new OrderCreateItemDto(product.getId(), 2));
+
+		OrderSummaryDto paid = orderService.payOrder(orderService.createOrder(items).getOrderId());
+		OrderSummaryDto canceled = orderService.cancelOrder(orderService.createOrder(items).getOrderId());
+		List<ProductDto> products = productService.getAllProducts(WARMUP_PAGE, SparseFieldset.ALL).getContent();
+		List<OrderSummaryDto> orders = orderService.getAllOrders(WARMUP_PAGE, SparseFieldset.ALL, SparseFieldset.ALL).getContent();
+
+		serialize(new Response.ResponseBuilder<Data<OrderSummaryDto>, OrderSummaryDto>().data(paid).build());
+		serialize(new Response.ResponseBuilder<Data<OrderSummaryDto>, OrderSummaryDto>().data(canceled).build());
+		serialize(new Response.ResponseBuilder<Data<List<ProductDto>>, List<ProductDto>>().data(products).build());
+		serialize(new Response.ResponseBuilder<Data<List<OrderSummaryDto>>, List<OrderSummaryDto>>().data(orders).build());
+	}
+
+	private void serialize(Object response) {
+		try {
+			objectMapper.writeValueAsBytes(response);
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to serialize warmup response", e);
+		}
+	}
+
+	private static double p99Millis(long[] latencies, int from, int to) {
+		if (to <= from) {
+			return 0;
+		}
+		long[] window = Arrays.copyOfRange(latencies, from, to);
+		Arrays.sort(window);
+		int index = (int) Math.ceil(window.length * 0.99) - 1;
+		return window[index] / 1_000_000.0;
+	}
+}
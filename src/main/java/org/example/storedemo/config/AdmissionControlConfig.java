@@ -0,0 +1,70 @@
+package org.example.storedemo.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.storedemo.service.admission.AdaptiveConcurrencyLimiter;
+import org.example.storedemo.service.admission.AdaptiveConcurrencyLimiter.Priority;
+import org.example.storedemo.service.admission.AdmissionControlInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// One limiter shared by new orders (NORMAL) and payments and cancels (CRITICAL), see app.admission
+@Configuration
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+	@Value("${app.admission.initial-limit:20}")
+	private int initialLimit;
+	@Value("${app.admission.min-limit:4}")
+	private int minLimit;
+	@Value("${app.admission.max-limit:200}")
+	private int maxLimit;
+	@Value("${app.admission.latency-threshold-ms:500}")
+	private long latencyThresholdMs;
+	@Value("${app.admission.backoff-ratio:0.9}")
+	private double backoffRatio;
+	@Value("${app.admission.critical-reserve:0.2}")
+	private double criticalReserve;
+	@Value("${app.admission.retry-after-seconds:1}")
+	private long retryAfterSeconds;
+
+	@Bean
+	public AdaptiveConcurrencyLimiter checkoutLimiter() {
+		return new AdaptiveConcurrencyLimiter(
+				initialLimit, minLimit, maxLimit, Duration.ofMillis(latencyThresholdMs), backoffRatio, criticalReserve);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		AdaptiveConcurrencyLimiter limiter = checkoutLimiter();
+		registry.addInterceptor(new AdmissionControlInterceptor(limiter, Priority.NORMAL, retryAfterSeconds))
+				.addPathPatterns("/orders");
+		registry.addInterceptor(new AdmissionControlInterceptor(limiter, Priority.CRITICAL, retryAfterSeconds))
+				.addPathPatterns("/orders/*", "/payments/**");
+	}
+
+	@Bean
+	public MeterBinder checkoutLimiterMetrics(AdaptiveConcurrencyLimiter checkoutLimiter) {
+		return registry -> {
+			Gauge.builder("store.admission.limit", checkoutLimiter, AdaptiveConcurrencyLimiter::getLimit)
+					.description("Current concurrency limit for checkout requests")
+					.register(registry);
+			Gauge.builder("store.admission.in_flight", checkoutLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+					.register(registry);
+			for (Priority priority : Priority.values()) {
+				FunctionCounter.builder("store.admission.rejected", checkoutLimiter, limiter -> limiter.getRejected(priority))
+						.tag("priority", priority.name().toLowerCase(Locale.ROOT))
+						.description("Checkout requests shed with 503")
+						.register(registry);
+			}
+		};
+	}
+}
@@ -0,0 +1,183 @@
+package org.example.storedemo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.storedemo.service.replica.ReplicaAwareJpaTransactionManager;
+import org.example.storedemo.service.replica.ReplicaLagTracker;
+import org.example.storedemo.service.replica.ReplicaRoutingDataSource;
+import org.example.storedemo.service.replica.ReplicaSynchronizer;
+import org.example.storedemo.service.replica.WriteTrackingDataSource;
+import org.example.storedemo.service.workload.WorkloadRoutingDataSource;
+import org.example.storedemo.service.workload.WorkloadType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Replaces Boot's single pool once workload pools or the read replica are switched on. Writes go to the primary,
+// which is either one pool or one pool per @Workload type; read-only transactions mark their connection read-only,
+// which LazyConnectionDataSourceProxy uses to pick the replica pool. See app.datasource.
+@Configuration
+@ConditionalOnExpression("${app.datasource.replica.enabled:false} or ${app.datasource.workloads.enabled:false}")
+public class DataSourceConfig {
+
+	@Bean
+	@Primary
+	public DataSource dataSource(
+			@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+			ObjectProvider<ReplicaLagTracker> replicaLagTracker,
+			MeterRegistry meterRegistry
+	) {
+		ReplicaLagTracker tracker = replicaLagTracker.getIfAvailable();
+		if (tracker == null) {
+			// still lazy, so the workload pool is picked at the first statement rather than at transaction begin
+			return new LazyConnectionDataSourceProxy(primary);
+		}
+		LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primary, tracker));
+		routing.setReadOnlyDataSource(new ReplicaRoutingDataSource(replica.getObject(), primary, tracker, meterRegistry));
+		return routing;
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(name = "app.datasource.workloads.enabled", havingValue = "false", matchIfMissing = true)
+	static class SinglePoolConfig {
+
+		@Bean
+		@ConfigurationProperties("spring.datasource.hikari")
+		public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+			return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		}
+	}
+
+	// A long expiry sweep or a large admin PATCH can only exhaust its own pool, never the one checkout uses.
+	// Acquire time shows up per pool as hikaricp.connections.acquire{pool=store-<workload>}.
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(name = "app.datasource.workloads.enabled", havingValue = "true")
+	static class WorkloadPoolsConfig {
+
+		@Bean
+		public HikariDataSource checkoutDataSource(DataSourceProperties properties, Environment environment) {
+			return workloadPool(properties, environment, WorkloadType.CHECKOUT);
+		}
+
+		@Bean
+		public HikariDataSource readDataSource(DataSourceProperties properties, Environment environment) {
+			return workloadPool(properties, environment, WorkloadType.READ);
+		}
+
+		@Bean
+		public HikariDataSource adminDataSource(DataSourceProperties properties, Environment environment) {
+			return workloadPool(properties, environment, WorkloadType.ADMIN);
+		}
+
+		@Bean
+		public HikariDataSource backgroundDataSource(DataSourceProperties properties, Environment environment) {
+			return workloadPool(properties, environment, WorkloadType.BACKGROUND);
+		}
+
+		@Bean
+		public DataSource primaryDataSource(
+				@Qualifier("checkoutDataSource") DataSource checkout,
+				@Qualifier("readDataSource") DataSource read,
+				@Qualifier("adminDataSource") DataSource admin,
+				@Qualifier("backgroundDataSource") DataSource background,
+				@Value("${app.datasource.workloads.default:READ}") WorkloadType defaultWorkload
+		) {
+			Map<WorkloadType, DataSource> pools = new EnumMap<>(WorkloadType.class);
+			pools.put(WorkloadType.CHECKOUT, checkout);
+			pools.put(WorkloadType.READ, read);
+			pools.put(WorkloadType.ADMIN, admin);
+			pools.put(WorkloadType.BACKGROUND, background);
+			return new WorkloadRoutingDataSource(pools, defaultWorkload);
+		}
+
+		private static HikariDataSource workloadPool(DataSourceProperties properties, Environment environment, WorkloadType workload) {
+			HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+			// shared spring.datasource.hikari settings first, then the workload's own size and timeout on top
+			Binder binder = Binder.get(environment);
+			binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+			binder.bind("app.datasource.workloads." + workload.propertyKey(), Bindable.ofInstance(pool));
+			pool.setPoolName(workload.poolName());
+			return pool;
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+	static class ReplicaConfig {
+
+		@Bean
+		@ConfigurationProperties("app.datasource.replica.hikari")
+		public HikariDataSource replicaDataSource(
+				@Value("${app.datasource.replica.url}") String url,
+				@Value("${app.datasource.replica.username}") String username,
+				@Value("${app.datasource.replica.password}") String password
+		) {
+			return DataSourceBuilder.create()
+					.type(HikariDataSource.class)
+					.url(url)
+					.username(username)
+					.password(password)
+					.build();
+		}
+
+		@Bean
+		public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+			JpaTransactionManager transactionManager = new ReplicaAwareJpaTransactionManager();
+			transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+			return transactionManager;
+		}
+
+		@Bean
+		public ReplicaLagTracker replicaLagTracker(Clock clock, @Value("${app.datasource.replica.max-lag-ms:2000}") long maxLagMs) {
+			return new ReplicaLagTracker(clock, Duration.ofMillis(maxLagMs));
+		}
+
+		@Bean
+		public ReplicaSynchronizer replicaSynchronizer(
+				@Qualifier("primaryDataSource") DataSource primary,
+				@Qualifier("replicaDataSource") DataSource replica,
+				ReplicaLagTracker replicaLagTracker,
+				MeterRegistry meterRegistry,
+				Clock clock
+		) {
+			return new ReplicaSynchronizer(primary, replica, replicaLagTracker, meterRegistry, clock);
+		}
+
+		@Bean
+		public MeterBinder replicaLagMetrics(ReplicaLagTracker replicaLagTracker) {
+			return registry -> {
+				Gauge.builder("store.datasource.replica_lag", replicaLagTracker, tracker -> tracker.currentLag().toMillis())
+						.baseUnit("milliseconds")
+						.description("Age of the oldest committed write the replica has not applied yet")
+						.register(registry);
+				Gauge.builder("store.datasource.replica_behind", replicaLagTracker,
+								tracker -> Math.max(0, tracker.currentWriteSequence() - tracker.getAppliedSequence()))
+						.description("Committed write transactions the replica has not applied yet")
+						.register(registry);
+			};
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package org.example.storedemo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+@Slf4j
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+	// unlike spring.main.lazy-initialization this only defers the listed packages, so the first
+	// store request does not pay for wiring controllers, JPA or security
+	@Bean
+	public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+		List<String> packages = List.of(environment.getProperty("app.startup.lazy-packages", String[].class, new String[0]));
+		return beanFactory -> {
+			int deferred = 0;
+			for (String name : beanFactory.getBeanDefinitionNames()) {
+				BeanDefinition definition = beanFactory.getBeanDefinition(name);
+				String origin = originClassName(definition);
+				if (origin != null && packages.stream().anyMatch(origin::startsWith)) {
+					definition.setLazyInit(true);
+					deferred++;
+				}
+			}
+			log.info("Fast start: {} beans from {} initialize on first use", deferred, packages);
+		};
+	}
+
+	// @Bean methods carry no bean class, so fall back to the configuration class declaring them
+	private static String originClassName(BeanDefinition definition) {
+		if (definition.getBeanClassName() != null) {
+			return definition.getBeanClassName();
+		}
+		if (definition instanceof AnnotatedBeanDefinition annotated) {
+			MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+			return factoryMethod != null ? factoryMethod.getDeclaringClassName() : null;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,81 @@
+package org.example.storedemo.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.storedemo.service.ProductListingCache;
+import org.example.storedemo.service.ProductLookupCoalescer;
+import org.example.storedemo.service.scheduler.OrderScheduler;
+import org.example.storedemo.util.SingleFlight;
+import org.example.storedemo.util.WarmupContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Hikari pool metrics (hikaricp.connections.acquire etc.) are bound by Boot's DataSource metrics auto-configuration
+@Configuration
+public class MetricsConfig {
+
+	// warmup cycles must not show up in the store.orders.* latency percentiles
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		return new TimedAspect(meterRegistry, joinPoint -> WarmupContext.isActive());
+	}
+
+	@Bean
+	public MeterBinder productListingCacheMetrics(ProductListingCache productListingCache) {
+		return registry -> {
+			FunctionCounter.builder("store.cache.requests", productListingCache, ProductListingCache::getHits)
+					.tag("cache", "productListing")
+					.tag("result", "hit")
+					.register(registry);
+			FunctionCounter.builder("store.cache.requests", productListingCache, ProductListingCache::getMisses)
+					.tag("cache", "productListing")
+					.tag("result", "miss")
+					.register(registry);
+			Gauge.builder("store.cache.hit_ratio", productListingCache, MetricsConfig::hitRatio)
+					.tag("cache", "productListing")
+					.register(registry);
+		};
+	}
+
+	@Bean
+	public MeterBinder orderSchedulerMetrics(OrderScheduler orderScheduler) {
+		return registry -> Gauge.builder("store.scheduler.backlog", orderScheduler, OrderScheduler::getExpiredBacklog)
+				.tag("task", "expire")
+				.description("Expired orders found at the start of the last sweep")
+				.register(registry);
+	}
+
+	@Bean
+	public MeterBinder productLookupCoalescingMetrics(ProductLookupCoalescer productLookupCoalescer) {
+		return registry -> productLookupCoalescer.keySpaces().forEach((keySpace, flight) -> {
+			FunctionCounter.builder("store.singleflight.calls", flight, SingleFlight::getLeaders)
+					.tag("key_space", keySpace)
+					.tag("result", "leader")
+					.register(registry);
+			FunctionCounter.builder("store.singleflight.calls", flight, SingleFlight::getCoalesced)
+					.tag("key_space", keySpace)
+					.tag("result", "coalesced")
+					.register(registry);
+			FunctionCounter.builder("store.singleflight.calls", flight, SingleFlight::getBypassed)
+					.tag("key_space", keySpace)
+					.tag("result", "bypassed")
+					.register(registry);
+			Gauge.builder("store.singleflight.coalescing_ratio", flight, SingleFlight::coalescingRatio)
+					.tag("key_space", keySpace)
+					.description("Share of lookups answered by another caller's in-flight query")
+					.register(registry);
+			Gauge.builder("store.singleflight.in_flight_keys", flight, SingleFlight::inFlightKeys)
+					.tag("key_space", keySpace)
+					.register(registry);
+		});
+	}
+
+	private static double hitRatio(ProductListingCache cache) {
+		long hits = cache.getHits();
+		long total = hits + cache.getMisses();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+}
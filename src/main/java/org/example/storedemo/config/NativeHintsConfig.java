@@ -0,0 +1,100 @@
+package org.example.storedemo.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.slmdev.jsonapi.simple.annotation.JsonApiId;
+import com.slmdev.jsonapi.simple.annotation.JsonApiType;
+import com.slmdev.jsonapi.simple.response.Data;
+import com.slmdev.jsonapi.simple.response.Response;
+import org.example.storedemo.dto.OrderDto;
+import org.example.storedemo.dto.OrderItemDto;
+import org.example.storedemo.dto.OrderSummaryItemDto;
+import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.ProductStockDto;
+import org.example.storedemo.dto.UserDto;
+import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.dto.request.ProductRequest;
+import org.example.storedemo.dto.response.OrderSummaryDto;
+import org.example.storedemo.dto.response.ProductCreateResponse;
+import org.example.storedemo.dto.response.ProductCreationError;
+import org.example.storedemo.dto.response.ProductImportResponse;
+import org.example.storedemo.entity.ProductEntityListener;
+import org.example.storedemo.repository.ExportRepository;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+// Hints for the native image; Spring AOT already covers beans, repositories, MapStruct implementations and JPA managed types.
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.StoreRuntimeHints.class)
+@RegisterReflectionForBinding({
+		Response.class,
+		Data.class,
+		ProductRequest.class,
+		OrderCreateItemDto.class,
+		OrderDto.class,
+		OrderItemDto.class,
+		UserDto.class,
+		ExportRepository.ProductRow.class,
+		ExportRepository.OrderItemRow.class
+})
+public class NativeHintsConfig {
+
+	// types serialized inside Response.data, which is untyped, so the binding walk above never reaches them
+	static final List<Class<?>> JSON_API_TYPES = List.of(
+			ProductDto.class,
+			ProductStockDto.class,
+			OrderSummaryDto.class,
+			OrderSummaryItemDto.class,
+			ProductCreateResponse.class,
+			ProductCreationError.class,
+			ProductImportResponse.class
+	);
+
+	static final List<String> EXPORT_TYPES = List.of(
+			"org.example.storedemo.service.ExportService$OrderExport",
+			"org.example.storedemo.service.ExportService$OrderItemExport"
+	);
+
+	static class StoreRuntimeHints implements RuntimeHintsRegistrar {
+
+		private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+		@Override
+		public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+			bindingRegistrar.registerReflectionHints(hints.reflection(), JSON_API_TYPES.toArray(Class<?>[]::new));
+			// jsonapi-simple finds the id and type by reading annotated fields reflectively
+			for (Class<?> type : JSON_API_TYPES) {
+				hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS);
+			}
+			hints.reflection().registerType(JsonApiId.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+			hints.reflection().registerType(JsonApiType.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+			// package-private records written by ExportService's ObjectMapper
+			for (String name : EXPORT_TYPES) {
+				bindingRegistrar.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(name, classLoader));
+			}
+
+			// Hibernate resolves the listener class reflectively before handing it to the Spring bean container
+			hints.reflection().registerType(ProductEntityListener.class,
+					MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+			// second-level cache: Hibernate picks the region factory and JCache the provider by class name, and Caffeine
+			// reads the region config and its own defaults from the classpath
+			hints.reflection().registerType(JCacheRegionFactory.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+			hints.reflection().registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+			hints.resources().registerPattern("hibernate-jcache.conf");
+			hints.resources().registerPattern("reference.conf");
+
+			// DataInitializer seed catalogue
+			hints.resources().registerPattern("mockData/*.csv");
+		}
+	}
+}
@@ -54,6 +54,8 @@ public class SecurityConfig {
 						.requestMatchers("/swagger-ui/**").hasRole(role)
 						.requestMatchers("/v3/api-docs/**").hasRole(role)
 						.requestMatchers("/h2-console/**").hasRole(role)
+						.requestMatchers("/actuator/health/**").permitAll()
+						.requestMatchers("/actuator/**").hasRole(role)
 
 						.anyRequest().permitAll()
 				)
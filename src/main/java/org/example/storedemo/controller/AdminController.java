@@ -8,17 +8,23 @@ import jakarta.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.ProductStockDto;
 import org.example.storedemo.dto.request.ProductRequest;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.dto.response.OrderSummaryDto;
 import org.example.storedemo.dto.response.ProductCreateResponse;
+import org.example.storedemo.dto.response.ProductImportResponse;
 import org.example.storedemo.service.OrderService;
+import org.example.storedemo.service.ProductImportService;
 import org.example.storedemo.service.ProductService;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -31,6 +37,7 @@ public class AdminController {
 
 	private final ProductService productService;
 	private final OrderService orderService;
+	private final ProductImportService productImportService;
 	private static final String ADMIN_TAG = "admin";
 
 	@Operation(summary = "Create new products via provided data", tags = ADMIN_TAG)
@@ -44,6 +51,17 @@ public class AdminController {
 				.build();
 	}
 
+	@Operation(summary = "Import products from CSV body with name,price,stockQuantity per line", tags = ADMIN_TAG)
+	@PostMapping(value = "/products/import", consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE })
+	public Response<Data<ProductImportResponse>> importProducts(
+			@Parameter(description = "CSV stream of products to import")
+			InputStream csv
+	) {
+		return new Response.ResponseBuilder<Data<ProductImportResponse>, ProductImportResponse>()
+				.data(productImportService.importProducts(csv))
+				.build();
+	}
+
 	@Operation(summary = "Delete product by id", tags = ADMIN_TAG)
 	@DeleteMapping("/products/{productId}")
 	public Response<Data<ProductDto>> deleteProduct(
@@ -81,14 +99,31 @@ public class AdminController {
 				.build();
 	}
 
+	@Operation(summary = "Return pageable list of available, reserved and sold stock per product", tags = ADMIN_TAG)
+	@GetMapping("/products/stock")
+	public Response<Data<List<ProductStockDto>>> getProductStock(
+			@Parameter(description = "Pageable parameters to request product stock")
+			@ParameterObject @PageableDefault(size = 8, sort = "name") Pageable pageable
+	) {
+		return new Response.ResponseBuilder<Data<List<ProductStockDto>>, List<ProductStockDto>>()
+				.data(productService.getProductStock(pageable).getContent())
+				.build();
+	}
+
 	@Operation(summary = "Return pageable list of all orders", tags = ADMIN_TAG)
 	@GetMapping("/orders")
 	public Response<Data<List<OrderSummaryDto>>> getAllOrders(
 			@Parameter(description = "Pageable parameters to request orders")
-			@ParameterObject @PageableDefault(size = 8, sort = "id") Pageable pageable
+			@ParameterObject @PageableDefault(size = 8, sort = "id") Pageable pageable,
+			@Parameter(description = "Comma separated order attributes to return, e.g. status,createdAt")
+			@RequestParam(name = "fields[orders]", required = false) String orderFields,
+			@Parameter(description = "Related resources to include, only products is supported")
+			@RequestParam(required = false) String include
 	) {
+		SparseFieldset fields = SparseFieldset.parse("fields[orders]", orderFields, OrderService.ORDER_FIELDS);
+		SparseFieldset includes = SparseFieldset.parse("include", include, OrderService.ORDER_INCLUDES);
 		return new Response.ResponseBuilder<Data<List<OrderSummaryDto>>, List<OrderSummaryDto>>()
-				.data(orderService.getAllOrders(pageable).getContent())
+				.data(orderService.getAllOrders(pageable, fields, includes).getContent())
 				.build();
 	}
 
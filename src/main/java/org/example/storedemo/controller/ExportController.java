@@ -0,0 +1,62 @@
+package org.example.storedemo.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import org.example.storedemo.entity.OrderStatus;
+import org.example.storedemo.service.ExportFormat;
+import org.example.storedemo.service.ExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/admin/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+	private final ExportService exportService;
+	private static final String ADMIN_TAG = "admin";
+
+	@Operation(summary = "Stream the whole product catalog as NDJSON or CSV", tags = ADMIN_TAG)
+	@GetMapping("/products")
+	public ResponseEntity<StreamingResponseBody> exportProducts(
+			@Parameter(description = "Export format: ndjson or csv")
+			@RequestParam(defaultValue = "ndjson") String format
+	) {
+		ExportFormat exportFormat = ExportFormat.fromParameter(format);
+		return streaming("products", exportFormat, out -> exportService.exportProducts(exportFormat, out));
+	}
+
+	@Operation(summary = "Stream orders created in the given range as NDJSON or CSV", tags = ADMIN_TAG)
+	@GetMapping("/orders")
+	public ResponseEntity<StreamingResponseBody> exportOrders(
+			@Parameter(description = "Inclusive lower bound of order creation time")
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@Parameter(description = "Exclusive upper bound of order creation time")
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@Parameter(description = "Order status to export")
+			@RequestParam(required = false) OrderStatus status,
+			@Parameter(description = "Export format: ndjson or csv")
+			@RequestParam(defaultValue = "ndjson") String format
+	) {
+		ExportFormat exportFormat = ExportFormat.fromParameter(format);
+		ExportService.OrderRange range = exportService.resolveOrderRange(from, to);
+		return streaming("orders", exportFormat, out -> exportService.exportOrders(range, status, exportFormat, out));
+	}
+
+	private ResponseEntity<StreamingResponseBody> streaming(String name, ExportFormat format, StreamingResponseBody body) {
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(format.getContentType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getFileExtension() + "\"")
+				.body(body);
+	}
+}
@@ -8,8 +8,10 @@ import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.dto.response.OrderSummaryDto;
 import org.example.storedemo.service.OrderService;
+import org.example.storedemo.service.MultiGetIdsValidator;
 import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -20,7 +22,7 @@ import java.util.UUID;
 @Validated
 @AllArgsConstructor
 @RestController
-@RequestMapping(value = "/orders", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(value = "/orders", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
 public class OrderController {
 
 	private final OrderService orderService;
@@ -47,14 +49,37 @@ public class OrderController {
 				.build();
 	}
 
+	@Operation(summary = "Fetch orders for the given ids in request order, with an error entry for unknown ids")
+	@GetMapping(params = "ids")
+	public Response<Data<List<OrderSummaryDto>>> getOrderSummaries(
+			@Parameter(description = "Comma separated order ids, at most " + MultiGetIdsValidator.MAX_IDS)
+			@RequestParam List<UUID> ids,
+			@Parameter(description = "Comma separated order attributes to return, e.g. status,createdAt")
+			@RequestParam(name = "fields[orders]", required = false) String orderFields,
+			@Parameter(description = "Related resources to include, only products is supported")
+			@RequestParam(required = false) String include
+	) {
+		SparseFieldset fields = SparseFieldset.parse("fields[orders]", orderFields, OrderService.ORDER_FIELDS);
+		SparseFieldset includes = SparseFieldset.parse("include", include, OrderService.ORDER_INCLUDES);
+		return new Response.ResponseBuilder<Data<List<OrderSummaryDto>>, List<OrderSummaryDto>>()
+				.data(orderService.getOrderSummaries(ids, fields, includes))
+				.build();
+	}
+
 	@Operation(summary = "Fetch order with specified UUID")
 	@GetMapping("/{id}")
 	public Response<Data<OrderSummaryDto>> getOrderSummary(
 			@Parameter(description = "Id path variable for order info")
-			@PathVariable @NonNull UUID id
+			@PathVariable @NonNull UUID id,
+			@Parameter(description = "Comma separated order attributes to return, e.g. status,createdAt")
+			@RequestParam(name = "fields[orders]", required = false) String orderFields,
+			@Parameter(description = "Related resources to include, only products is supported")
+			@RequestParam(required = false) String include
 	) {
+		SparseFieldset fields = SparseFieldset.parse("fields[orders]", orderFields, OrderService.ORDER_FIELDS);
+		SparseFieldset includes = SparseFieldset.parse("include", include, OrderService.ORDER_INCLUDES);
 		return new Response.ResponseBuilder<Data<OrderSummaryDto>, OrderSummaryDto>()
-				.data(orderService.getOrderSummary(id))
+				.data(orderService.getOrderSummary(id, fields, includes))
 				.build();
 	}
 
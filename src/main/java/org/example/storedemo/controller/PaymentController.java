@@ -18,7 +18,7 @@ import java.util.UUID;
 
 @AllArgsConstructor
 @RestController
-@RequestMapping(value = "/payments", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(value = "/payments", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
 public class PaymentController {
 
 	private final OrderService orderService;
@@ -1,5 +1,7 @@
 package org.example.storedemo.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.slmdev.jsonapi.simple.response.Data;
 import com.slmdev.jsonapi.simple.response.Response;
 import io.swagger.v3.oas.annotations.Operation;
@@ -7,32 +9,138 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
 import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.request.SparseFieldset;
+import org.example.storedemo.service.MultiGetIdsValidator;
+import org.example.storedemo.service.ProductListingCache;
+import org.example.storedemo.service.ProductListingCache.CachedPage;
 import org.example.storedemo.service.ProductService;
+import org.example.storedemo.service.replica.ReplicaLagTracker;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 @AllArgsConstructor
 @RestController
-@RequestMapping(value = "/products", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(value = "/products", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
 @Tag(name = "Products", description = "Product management endpoints")
 public class ProductController {
 
 	private final ProductService productService;
+	private final ProductListingCache productListingCache;
+	private final ObjectMapper objectMapper;
+	private final MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
 
 	@Operation(summary = "Return pageable list of all products")
 	@GetMapping()
-	public Response<Data<List<ProductDto>>> getAllProducts(
+	public ResponseEntity<byte[]> getAllProducts(
 			@Parameter(description = "Pageable parameters for products request")
-			@ParameterObject @PageableDefault(size = 8, sort = "name") Pageable pageable
+			@ParameterObject @PageableDefault(size = 8, sort = "name") Pageable pageable,
+			@Parameter(description = "Comma separated product attributes to return, e.g. name,price")
+			@RequestParam(name = "fields[products]", required = false) String productFields,
+			@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+			@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	) {
+		SparseFieldset fields = SparseFieldset.parse("fields[products]", productFields, ProductService.PRODUCT_FIELDS);
+		MediaType contentType = negotiateContentType(accept);
+		String key = contentType + ":" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort() + ":" + fields;
+
+		boolean gzip = acceptsGzip(acceptEncoding);
+		String currentEtag = productListingCache.currentEtag(key, gzip);
+		if (matchesEtag(ifNoneMatch, currentEtag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+					.eTag(currentEtag)
+					.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+					.build();
+		}
+
+		ObjectMapper mapper = MediaType.APPLICATION_CBOR.equals(contentType) ? cborHttpMessageConverter.getObjectMapper() : objectMapper;
+		CachedPage page = productListingCache.getOrRender(key, () -> render(pageable, fields, mapper));
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.contentType(contentType)
+				.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+		if (page.etag() != null) {
+			response.eTag(page.etag(gzip));
+		}
+		if (gzip) {
+			return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.gzipBody());
+		}
+		return response.body(page.body());
+	}
+
+	@Operation(summary = "Return products for the given ids in request order, with an error entry for unknown ids")
+	@GetMapping(params = "ids")
+	public Response<Data<List<ProductDto>>> getProductsByIds(
+			@Parameter(description = "Comma separated product ids, at most " + MultiGetIdsValidator.MAX_IDS)
+			@RequestParam List<UUID> ids
 	) {
 		return new Response.ResponseBuilder<Data<List<ProductDto>>, List<ProductDto>>()
-				.data(productService.getAllProducts(pageable).getContent())
+				.data(productService.getProductsByIds(ids))
 				.build();
 	}
 
+	private byte[] render(Pageable pageable, SparseFieldset fields, ObjectMapper mapper) {
+		// the page is cached under the current catalog version, so it must not come from a lagging replica
+		ReplicaLagTracker.requireCaughtUpReplica();
+		Response<Data<List<ProductDto>>> response = new Response.ResponseBuilder<Data<List<ProductDto>>, List<ProductDto>>()
+				.data(productService.getAllProducts(pageable, fields).getContent())
+				.build();
+		try {
+			return mapper.writeValueAsBytes(response);
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// the cached listing is written as raw bytes, so the format is picked here rather than by a message converter;
+	// JSON wins ties and is the fallback when neither format is acceptable
+	private static MediaType negotiateContentType(String accept) {
+		if (accept == null) {
+			return MediaType.APPLICATION_JSON;
+		}
+		List<MediaType> acceptedTypes = MediaType.parseMediaTypes(accept);
+		double json = quality(acceptedTypes, MediaType.APPLICATION_JSON);
+		double cbor = quality(acceptedTypes, MediaType.APPLICATION_CBOR);
+		return cbor > json ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON;
+	}
+
+	// q-value of the most specific accepted range covering the type (RFC 9110 12.5.1), 0 if none does
+	private static double quality(List<MediaType> acceptedTypes, MediaType type) {
+		MediaType match = null;
+		for (MediaType acceptedType : acceptedTypes) {
+			if (acceptedType.includes(type) && (match == null || specificity(acceptedType) > specificity(match))) {
+				match = acceptedType;
+			}
+		}
+		return match == null ? 0 : match.getQualityValue();
+	}
+
+	private static int specificity(MediaType type) {
+		return type.isWildcardType() ? 0 : type.isWildcardSubtype() ? 1 : 2;
+	}
+
+	private static boolean matchesEtag(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		return Arrays.stream(ifNoneMatch.split(","))
+				.map(String::trim)
+				.anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag) || candidate.equals("W/" + etag));
+	}
+
+	private static boolean acceptsGzip(String acceptEncoding) {
+		return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+	}
+
 }
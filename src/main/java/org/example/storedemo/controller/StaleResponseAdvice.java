@@ -0,0 +1,44 @@
+package org.example.storedemo.controller;
+
+import org.example.storedemo.service.ResilientReadCache;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+
+// Marks responses built from a stale fallback of ResilientReadCache, so clients and caches can tell
+@ControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+	static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(
+			Object body,
+			MethodParameter returnType,
+			MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType,
+			ServerHttpRequest request,
+			ServerHttpResponse response
+	) {
+		Duration staleAge = ResilientReadCache.staleAge();
+		if (staleAge != null) {
+			HttpHeaders headers = response.getHeaders();
+			headers.set(HttpHeaders.WARNING, STALE_WARNING);
+			headers.set(HttpHeaders.AGE, Long.toString(staleAge.toSeconds()));
+			headers.setCacheControl("no-store");
+		}
+		return body;
+	}
+}
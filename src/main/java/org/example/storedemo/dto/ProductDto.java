@@ -20,7 +20,8 @@ public class ProductDto {
 	private UUID id;
 	private String name;
 	private BigDecimal price;
-	private int stockQuantity;
+	private Integer stockQuantity;
+	private Integer version;
 	private String errorMessage;
 
 	public ProductDto(UUID id, String name, BigDecimal price, int stockQuantity) {
@@ -29,4 +30,9 @@ public class ProductDto {
 		this.price = price;
 		this.stockQuantity = stockQuantity;
 	}
+
+	public ProductDto(UUID id, String name, BigDecimal price, int stockQuantity, String errorMessage) {
+		this(id, name, price, stockQuantity);
+		this.errorMessage = errorMessage;
+	}
 }
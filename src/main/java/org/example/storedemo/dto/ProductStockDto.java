@@ -0,0 +1,23 @@
+package org.example.storedemo.dto;
+
+import com.slmdev.jsonapi.simple.annotation.JsonApiId;
+import com.slmdev.jsonapi.simple.annotation.JsonApiType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonApiType("productStock")
+public class ProductStockDto {
+	@JsonApiId
+	private UUID id;
+	private String name;
+	private int stockQuantity;
+	private int reservedQuantity;
+	private int soldQuantity;
+	private int activeOrderCount;
+}
@@ -2,6 +2,7 @@ package org.example.storedemo.dto.request;
 
 import lombok.*;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -17,9 +18,18 @@ public class ProductRequest {
 
 	@NotNull(message = "Price must not be null")
 	@DecimalMin(value = "0.0", message = "Price must be greater than or equal to 0")
+	@Digits(integer = 15, fraction = 2, message = "Price must have at most 2 decimal places")
 	private BigDecimal price;
 
 	@Min(value = 0, message = "Stock quantity must not be negative")
 	private int stockQuantity;
 
+	// expected product version for updates, skipped when null
+	private Integer version;
+
+	public ProductRequest(String name, BigDecimal price, int stockQuantity) {
+		this.name = name;
+		this.price = price;
+		this.stockQuantity = stockQuantity;
+	}
 }
@@ -0,0 +1,45 @@
+package org.example.storedemo.dto.request;
+
+import org.example.storedemo.exception.BadRequestException;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// JSON:API fields[type]= / include= selection; a null field set means the parameter was absent and everything is returned
+public record SparseFieldset(Set<String> fields) {
+
+	public static final SparseFieldset ALL = new SparseFieldset(null);
+
+	public static SparseFieldset parse(String parameter, String value, Set<String> supportedFields) {
+		if (value == null) {
+			return ALL;
+		}
+
+		Set<String> fields = new LinkedHashSet<>();
+		for (String field : value.split(",")) {
+			String trimmed = field.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			if (!supportedFields.contains(trimmed)) {
+				throw new BadRequestException("Unsupported " + parameter + " value: " + trimmed + ", expected one of " + supportedFields);
+			}
+			fields.add(trimmed);
+		}
+		return new SparseFieldset(Collections.unmodifiableSet(fields));
+	}
+
+	public boolean isAll() {
+		return fields == null;
+	}
+
+	public boolean includes(String field) {
+		return fields == null || fields.contains(field);
+	}
+
+	@Override
+	public String toString() {
+		return fields == null ? "*" : String.join(",", fields);
+	}
+}
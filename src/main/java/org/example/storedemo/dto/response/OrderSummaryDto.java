@@ -1,15 +1,22 @@
 package org.example.storedemo.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.slmdev.jsonapi.simple.annotation.JsonApiId;
 import com.slmdev.jsonapi.simple.annotation.JsonApiType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.example.storedemo.dto.OrderSummaryItemDto;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.entity.OrderStatus;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -19,9 +26,56 @@ import java.util.UUID;
 public class OrderSummaryDto {
 	@JsonApiId
 	private UUID orderId;
+	// written through getRequestedAttributes(), so attributes left out by fields[orders]= are omitted while
+	// requested ones are written even when null (an unpaid order's paidAt)
+	@JsonIgnore
 	private OrderStatus status;
+	@JsonIgnore
 	private LocalDateTime createdAt;
+	@JsonIgnore
 	private LocalDateTime expiresAt;
+	@JsonIgnore
 	private LocalDateTime paidAt;
+	// only present with include=products
+	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private List<OrderSummaryItemDto> products;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private BigDecimal totalPrice;
+	// only set on not-found markers in multi-get responses
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String errorMessage;
+	@JsonIgnore
+	private SparseFieldset fields = SparseFieldset.ALL;
+
+	public OrderSummaryDto(
+			UUID orderId,
+			OrderStatus status,
+			LocalDateTime createdAt,
+			LocalDateTime expiresAt,
+			LocalDateTime paidAt,
+			List<OrderSummaryItemDto> products
+	) {
+		this.orderId = orderId;
+		this.status = status;
+		this.createdAt = createdAt;
+		this.expiresAt = expiresAt;
+		this.paidAt = paidAt;
+		this.products = products;
+	}
+
+	@JsonAnyGetter
+	public Map<String, Object> getRequestedAttributes() {
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		putIfRequested(attributes, "status", status);
+		putIfRequested(attributes, "createdAt", createdAt);
+		putIfRequested(attributes, "expiresAt", expiresAt);
+		putIfRequested(attributes, "paidAt", paidAt);
+		return attributes;
+	}
+
+	private void putIfRequested(Map<String, Object> attributes, String name, Object value) {
+		if (fields.includes(name)) {
+			attributes.put(name, value);
+		}
+	}
 }
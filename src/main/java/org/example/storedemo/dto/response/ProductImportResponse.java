@@ -0,0 +1,23 @@
+package org.example.storedemo.dto.response;
+
+import com.slmdev.jsonapi.simple.annotation.JsonApiId;
+import com.slmdev.jsonapi.simple.annotation.JsonApiType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonApiType("productImports")
+public class ProductImportResponse {
+	@JsonApiId
+	private UUID id;
+	private int totalRows;
+	private int importedCount;
+	private int failedCount;
+	private List<ProductCreationError> errorProducts;
+}
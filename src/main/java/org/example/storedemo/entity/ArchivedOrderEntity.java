@@ -0,0 +1,54 @@
+package org.example.storedemo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "orders_archive")
+@ToString(exclude = "items")
+@EqualsAndHashCode(exclude = {"items", "newEntity"})
+public class ArchivedOrderEntity implements Persistable<UUID> {
+	@Id
+	private UUID id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private OrderStatus status;
+
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+	private LocalDateTime expiresAt;
+	private LocalDateTime paidAt;
+
+	@Column(nullable = false)
+	private LocalDateTime archivedAt;
+
+	@OneToMany(mappedBy = "orderEntity", cascade = CascadeType.ALL, orphanRemoval = true)
+	private List<ArchivedOrderItemEntity> items = new ArrayList<>();
+
+	// archive rows are written once, so skip the merge select on save
+	@Transient
+	private boolean newEntity = true;
+
+	@Override
+	public boolean isNew() {
+		return newEntity;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markNotNew() {
+		this.newEntity = false;
+	}
+}
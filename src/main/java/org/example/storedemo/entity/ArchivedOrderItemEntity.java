@@ -0,0 +1,47 @@
+package org.example.storedemo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "order_items_archive", indexes = {
+		@Index(name = "idx_archive_order_id", columnList = "order_id")
+})
+@ToString(exclude = "orderEntity")
+@EqualsAndHashCode(exclude = "orderEntity")
+public class ArchivedOrderItemEntity {
+	@Id
+	private UUID id;
+
+	@ManyToOne(optional = false, fetch = FetchType.LAZY)
+	@JoinColumn(name = "order_id")
+	private ArchivedOrderEntity orderEntity;
+
+	// no foreign key: archived items must outlive deleted products
+	@Column(name = "product_id", nullable = false)
+	private UUID productId;
+
+	@Column(nullable = false)
+	private String productName;
+
+	@Column(nullable = false)
+	private BigDecimal unitPrice;
+
+	@Column(nullable = false)
+	private int quantity;
+
+	@Column(nullable = false)
+	private BigDecimal priceSnapshot;
+}
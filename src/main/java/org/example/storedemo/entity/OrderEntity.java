@@ -13,7 +13,9 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+		@Index(name = "idx_orders_status_created_at", columnList = "status, created_at")
+})
 @ToString(exclude = "items")
 public class OrderEntity {
 	@Id
@@ -23,11 +25,15 @@ public class OrderEntity {
 	@Column(nullable = false)
 	private OrderStatus status;
 
-	@Column(nullable = false)
+	@Column(name = "created_at", nullable = false)
 	private LocalDateTime createdAt;
 	private LocalDateTime expiresAt;
 	private LocalDateTime paidAt;
 
 	@OneToMany(mappedBy = "orderEntity", cascade = CascadeType.ALL, orphanRemoval = true)
 	private List<OrderItemEntity> items = new ArrayList<>();
+
+	// a payment or cancellation racing the expiry sweep must not both settle the same reservation
+	@Version
+	private int version;
 }
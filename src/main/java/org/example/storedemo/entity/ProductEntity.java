@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -12,10 +14,16 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@EntityListeners(ProductEntityListener.class)
+@Cacheable
+// read-write keeps soft locks while a transaction updates the row, @Version still guards concurrent writers
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ProductEntity.CACHE_REGION)
 @Table(name = "products", uniqueConstraints = {
 		@UniqueConstraint(columnNames = "name")
 })
 public class ProductEntity {
+	public static final String CACHE_REGION = "products";
+
 	@Id
 	private UUID id;
 
@@ -28,6 +36,18 @@ public class ProductEntity {
 	@Column(name = "stock_quantity", nullable = false)
 	private int stockQuantity;
 
+	// units held by CREATED orders
+	@Column(name = "reserved_quantity", nullable = false)
+	private int reservedQuantity;
+
+	// units of PAID orders
+	@Column(name = "sold_quantity", nullable = false)
+	private int soldQuantity;
+
+	// CREATED and PAID orders in the hot tables containing this product
+	@Column(name = "active_order_count", nullable = false)
+	private int activeOrderCount;
+
 	@Version
 	private int version;
 
@@ -0,0 +1,22 @@
+package org.example.storedemo.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.example.storedemo.service.CatalogVersionService;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductEntityListener {
+
+	private final CatalogVersionService catalogVersionService;
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void onProductChange(ProductEntity product) {
+		catalogVersionService.bumpAfterCommit();
+	}
+}
@@ -0,0 +1,11 @@
+package org.example.storedemo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceOverloadedException extends BaseApiException {
+	public ServiceOverloadedException(String message) {
+		super(message);
+	}
+}
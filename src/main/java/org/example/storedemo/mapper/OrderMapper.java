@@ -1,12 +1,15 @@
 package org.example.storedemo.mapper;
 
 import org.example.storedemo.dto.OrderSummaryItemDto;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.dto.response.OrderSummaryDto;
+import org.example.storedemo.entity.ArchivedOrderEntity;
 import org.example.storedemo.entity.OrderEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mappings;
 import org.mapstruct.ReportingPolicy;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -15,11 +18,16 @@ public interface OrderMapper {
 
 	@Mappings({})
 	default OrderSummaryDto toSummaryDto(OrderEntity order) {
+		return toSummaryDto(order, SparseFieldset.ALL, true);
+	}
+
+	default OrderSummaryDto toSummaryDto(OrderEntity order, SparseFieldset fields, boolean includeProducts) {
 		if (order == null){
 			return new OrderSummaryDto();
 		}
 
-		List<OrderSummaryItemDto> items = order.getItems().stream()
+		// the lazy items collection is only touched when products are requested
+		List<OrderSummaryItemDto> items = !includeProducts ? null : order.getItems().stream()
 				.map(item -> new OrderSummaryItemDto(
 						item.getProductEntity().getId(),
 						item.getProductEntity().getName(),
@@ -28,13 +36,58 @@ public interface OrderMapper {
 						item.getPriceSnapshot()
 				)).toList();
 
-		return new OrderSummaryDto(
+		OrderSummaryDto summary = new OrderSummaryDto(
 				order.getId(),
-				order.getStatus(),
-				order.getCreatedAt(),
-				order.getExpiresAt(),
-				order.getPaidAt(),
+				fields.includes("status") ? order.getStatus() : null,
+				fields.includes("createdAt") ? order.getCreatedAt() : null,
+				fields.includes("expiresAt") ? order.getExpiresAt() : null,
+				fields.includes("paidAt") ? order.getPaidAt() : null,
 				items
 		);
+		summary.setTotalPrice(totalOf(items));
+		summary.setFields(fields);
+		return summary;
+	}
+
+	default OrderSummaryDto toArchivedSummaryDto(ArchivedOrderEntity order) {
+		return toArchivedSummaryDto(order, SparseFieldset.ALL, true);
+	}
+
+	default OrderSummaryDto toArchivedSummaryDto(ArchivedOrderEntity order, SparseFieldset fields, boolean includeProducts) {
+		if (order == null) {
+			return new OrderSummaryDto();
+		}
+
+		List<OrderSummaryItemDto> items = !includeProducts ? null : order.getItems().stream()
+				.map(item -> new OrderSummaryItemDto(
+						item.getProductId(),
+						item.getProductName(),
+						item.getUnitPrice(),
+						item.getQuantity(),
+						item.getPriceSnapshot()
+				)).toList();
+
+		OrderSummaryDto summary = new OrderSummaryDto(
+				order.getId(),
+				fields.includes("status") ? order.getStatus() : null,
+				fields.includes("createdAt") ? order.getCreatedAt() : null,
+				fields.includes("expiresAt") ? order.getExpiresAt() : null,
+				fields.includes("paidAt") ? order.getPaidAt() : null,
+				items
+		);
+		summary.setTotalPrice(totalOf(items));
+		summary.setFields(fields);
+		return summary;
+	}
+
+	static BigDecimal totalOf(List<OrderSummaryItemDto> items) {
+		if (items == null) {
+			return null;
+		}
+		BigDecimal total = BigDecimal.ZERO;
+		for (OrderSummaryItemDto item : items) {
+			total = total.add(item.getTotalPrice());
+		}
+		return total;
 	}
 }
@@ -2,6 +2,7 @@ package org.example.storedemo.mapper;
 
 
 import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.ProductStockDto;
 import org.example.storedemo.dto.request.ProductRequest;
 import org.example.storedemo.entity.ProductEntity;
 import org.mapstruct.Mapper;
@@ -22,10 +23,16 @@ public interface ProductMapper {
 	@Mapping(target = "name", source = "entity.name")
 	@Mapping(target = "price", source = "entity.price")
 	@Mapping(target = "stockQuantity", source = "entity.stockQuantity")
+	@Mapping(target = "version", source = "entity.version")
 	ProductDto toDto(ProductEntity entity);
 
+	ProductStockDto toStockDto(ProductEntity entity);
+
 	@Mapping(target = "id", expression = "java(UUID.randomUUID())")
 	@Mapping(target = "version", ignore = true)
+	@Mapping(target = "reservedQuantity", ignore = true)
+	@Mapping(target = "soldQuantity", ignore = true)
+	@Mapping(target = "activeOrderCount", ignore = true)
 	ProductEntity toEntity(ProductRequest request);
 
 }
@@ -0,0 +1,11 @@
+package org.example.storedemo.repository;
+
+import org.example.storedemo.entity.ArchivedOrderEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrderEntity, UUID> {
+}
@@ -0,0 +1,102 @@
+package org.example.storedemo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.storedemo.entity.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class ExportRepository {
+
+	private static final int FETCH_SIZE = 500;
+
+	private static final String PRODUCTS_SQL = """
+			SELECT id, name, price, stock_quantity
+			FROM products
+			ORDER BY name
+			""";
+
+	private static final String ORDER_ITEMS_SQL = """
+			SELECT o.id AS order_id, o.status, o.created_at, o.expires_at, o.paid_at,
+			       i.product_id, i.quantity, i.price_snapshot
+			FROM orders o
+			JOIN order_items i ON i.order_id = o.id
+			WHERE o.created_at >= ? AND o.created_at < ?
+			""";
+	private static final String STATUS_FILTER_SQL = " AND o.status = ?";
+	private static final String ORDER_BY_ORDER_SQL = " ORDER BY o.id";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public void streamProducts(Consumer<ProductRow> consumer) {
+		jdbcTemplate.query(
+				con -> forwardOnly(con.prepareStatement(PRODUCTS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)),
+				(RowCallbackHandler) rs -> consumer.accept(new ProductRow(
+						rs.getObject("id", UUID.class),
+						rs.getString("name"),
+						rs.getBigDecimal("price"),
+						rs.getInt("stock_quantity")
+				))
+		);
+	}
+
+	// rows come ordered by order id, so all items of one order are adjacent
+	public void streamOrderItems(LocalDateTime from, LocalDateTime to, OrderStatus status, Consumer<OrderItemRow> consumer) {
+		String sql = ORDER_ITEMS_SQL + (status == null ? "" : STATUS_FILTER_SQL) + ORDER_BY_ORDER_SQL;
+		jdbcTemplate.query(
+				con -> {
+					PreparedStatement ps = forwardOnly(
+							con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY));
+					ps.setTimestamp(1, Timestamp.valueOf(from));
+					ps.setTimestamp(2, Timestamp.valueOf(to));
+					if (status != null) {
+						ps.setString(3, status.name());
+					}
+					return ps;
+				},
+				(RowCallbackHandler) rs -> consumer.accept(new OrderItemRow(
+						rs.getObject("order_id", UUID.class),
+						OrderStatus.valueOf(rs.getString("status")),
+						toLocalDateTime(rs.getTimestamp("created_at")),
+						toLocalDateTime(rs.getTimestamp("expires_at")),
+						toLocalDateTime(rs.getTimestamp("paid_at")),
+						rs.getObject("product_id", UUID.class),
+						rs.getInt("quantity"),
+						rs.getBigDecimal("price_snapshot")
+				))
+		);
+	}
+
+	private PreparedStatement forwardOnly(PreparedStatement ps) throws SQLException {
+		ps.setFetchSize(FETCH_SIZE);
+		return ps;
+	}
+
+	private LocalDateTime toLocalDateTime(Timestamp timestamp) {
+		return timestamp == null ? null : timestamp.toLocalDateTime();
+	}
+
+	public record ProductRow(UUID id, String name, BigDecimal price, int stockQuantity) {}
+
+	public record OrderItemRow(
+			UUID orderId,
+			OrderStatus status,
+			LocalDateTime createdAt,
+			LocalDateTime expiresAt,
+			LocalDateTime paidAt,
+			UUID productId,
+			int quantity,
+			BigDecimal priceSnapshot
+	) {}
+}
@@ -10,6 +10,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -31,5 +33,20 @@ public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
 			Pageable pageable
 	);
 
+	@Query("SELECT o.id FROM OrderEntity o " +
+			"WHERE o.status IN :statuses AND o.createdAt < :cutoffTime AND o.id > :afterId " +
+			"ORDER BY o.id")
+	List<UUID> findArchivableOrderIds(
+			@Param("statuses") Collection<OrderStatus> statuses,
+			@Param("cutoffTime") LocalDateTime cutoffTime,
+			@Param("afterId") UUID afterId,
+			Pageable pageable
+	);
+
+	@Query("SELECT DISTINCT o FROM OrderEntity o " +
+			"LEFT JOIN FETCH o.items i " +
+			"LEFT JOIN FETCH i.productEntity " +
+			"WHERE o.id IN :ids")
+	List<OrderEntity> findAllWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
 
 }
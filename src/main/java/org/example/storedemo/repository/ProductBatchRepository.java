@@ -0,0 +1,38 @@
+package org.example.storedemo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.service.CatalogVersionService;
+import org.example.storedemo.service.ProductCacheInvalidator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductBatchRepository {
+
+	private static final String INSERT_PRODUCT_SQL = """
+			INSERT INTO products (id, name, price, stock_quantity, reserved_quantity, sold_quantity, active_order_count, version)
+			VALUES (?, ?, ?, ?, 0, 0, 0, 0)
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final CatalogVersionService catalogVersionService;
+	private final ProductCacheInvalidator productCacheInvalidator;
+
+	@Transactional(rollbackFor = Exception.class)
+	public void insertAll(List<ProductEntity> products) {
+		jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, products, products.size(), (ps, product) -> {
+			ps.setObject(1, product.getId());
+			ps.setString(2, product.getName());
+			ps.setBigDecimal(3, product.getPrice());
+			ps.setInt(4, product.getStockQuantity());
+		});
+		// plain JDBC skips entity listeners and the second-level cache
+		catalogVersionService.bumpAfterCommit();
+		productCacheInvalidator.evictAfterCompletion();
+	}
+}
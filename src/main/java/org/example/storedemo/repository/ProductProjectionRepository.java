@@ -0,0 +1,80 @@
+package org.example.storedemo.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.entity.ProductEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// selects only the requested product columns instead of whole entities, for sparse fieldset listings
+@Repository
+public class ProductProjectionRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public Page<ProductDto> findAll(Set<String> fields, Pageable pageable) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<ProductEntity> root = query.from(ProductEntity.class);
+
+		List<Selection<?>> selections = new ArrayList<>(fields.size() + 1);
+		selections.add(root.get("id").alias("id"));
+		for (String field : fields) {
+			selections.add(root.get(field).alias(field));
+		}
+		query.multiselect(selections).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+		TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+		if (pageable.isPaged()) {
+			typedQuery.setFirstResult((int) pageable.getOffset());
+			typedQuery.setMaxResults(pageable.getPageSize());
+		}
+
+		List<ProductDto> content = typedQuery.getResultList().stream()
+				.map(tuple -> toDto(tuple, fields))
+				.toList();
+		return PageableExecutionUtils.getPage(content, pageable, this::count);
+	}
+
+	private long count() {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		query.select(cb.count(query.from(ProductEntity.class)));
+		return entityManager.createQuery(query).getSingleResult();
+	}
+
+	private static ProductDto toDto(Tuple tuple, Set<String> fields) {
+		ProductDto dto = new ProductDto();
+		dto.setId(tuple.get("id", UUID.class));
+		if (fields.contains("name")) {
+			dto.setName(tuple.get("name", String.class));
+		}
+		if (fields.contains("price")) {
+			dto.setPrice(tuple.get("price", BigDecimal.class));
+		}
+		if (fields.contains("stockQuantity")) {
+			dto.setStockQuantity(tuple.get("stockQuantity", Integer.class));
+		}
+		if (fields.contains("version")) {
+			dto.setVersion(tuple.get("version", Integer.class));
+		}
+		return dto;
+	}
+}
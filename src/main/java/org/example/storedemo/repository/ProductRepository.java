@@ -1,19 +1,43 @@
 package org.example.storedemo.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.storedemo.entity.ProductEntity;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface ProductRepository extends JpaRepository<ProductEntity, UUID> {
+	// invalidated by Hibernate on entity writes, JDBC writers go through ProductCacheInvalidator
+	String LOOKUP_CACHE_REGION = "product-lookups";
+
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LOOKUP_CACHE_REGION)
+	})
 	boolean existsByName(String name);
 
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LOOKUP_CACHE_REGION)
+	})
 	Optional<ProductEntity> findByNameIgnoreCase(String name);
 
+	List<ProductEntity> findAllByNameIn(Collection<String> names);
+
+	@Query("SELECT p.name FROM ProductEntity p WHERE p.name IN :names")
+	Set<String> findExistingNames(@Param("names") Collection<String> names);
+
 	Page<ProductEntity> findByNameContainingIgnoreCase(String name, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package org.example.storedemo.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class CatalogVersionService {
+
+	private final AtomicLong version = new AtomicLong();
+
+	public long current() {
+		return version.get();
+	}
+
+	// readers may cache what they saw before commit, so the version only moves once the change is visible;
+	// synchronizations belong to one transaction (a REQUIRES_NEW inner one gets its own), so each commits its own bump
+	public void bumpAfterCommit() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			version.incrementAndGet();
+			return;
+		}
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			if (synchronization instanceof VersionBump) {
+				return;
+			}
+		}
+		TransactionSynchronizationManager.registerSynchronization(new VersionBump());
+	}
+
+	private class VersionBump implements TransactionSynchronization {
+		@Override
+		public void afterCommit() {
+			version.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package org.example.storedemo.service;
+
+import lombok.Getter;
+import org.example.storedemo.exception.BadRequestException;
+
+@Getter
+public enum ExportFormat {
+	NDJSON("application/x-ndjson", "ndjson"),
+	CSV("text/csv", "csv");
+
+	private final String contentType;
+	private final String fileExtension;
+
+	ExportFormat(String contentType, String fileExtension) {
+		this.contentType = contentType;
+		this.fileExtension = fileExtension;
+	}
+
+	public static ExportFormat fromParameter(String format) {
+		for (ExportFormat value : values()) {
+			if (value.fileExtension.equalsIgnoreCase(format)) {
+				return value;
+			}
+		}
+		throw new BadRequestException("Unsupported export format: " + format + ", expected ndjson or csv");
+	}
+}
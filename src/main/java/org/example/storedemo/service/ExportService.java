@@ -0,0 +1,175 @@
+package org.example.storedemo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.storedemo.entity.OrderStatus;
+import org.example.storedemo.exception.BadRequestException;
+import org.example.storedemo.repository.ExportRepository;
+import org.example.storedemo.repository.ExportRepository.OrderItemRow;
+import org.example.storedemo.repository.ExportRepository.ProductRow;
+import org.example.storedemo.service.workload.Workload;
+import org.example.storedemo.service.workload.WorkloadType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+	private static final LocalDateTime DEFAULT_FROM = LocalDateTime.of(1970, 1, 1, 0, 0);
+	private static final LocalDateTime DEFAULT_TO = LocalDateTime.of(9999, 12, 31, 0, 0);
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final ExportRepository exportRepository;
+	private final ObjectMapper objectMapper;
+
+	@Workload(WorkloadType.ADMIN)
+	public void exportProducts(ExportFormat format, OutputStream outputStream) throws IOException {
+		log.info("Exporting products as {}", format);
+		OutputStream out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+		if (format == ExportFormat.CSV) {
+			writeLine(out, "id,name,price,stockQuantity");
+		}
+
+		try {
+			exportRepository.streamProducts(row -> {
+				if (format == ExportFormat.CSV) {
+					writeLine(out, row.id() + "," + csv(row.name()) + "," + row.price() + "," + row.stockQuantity());
+				} else {
+					writeJsonLine(out, row);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		out.flush();
+	}
+
+	public OrderRange resolveOrderRange(LocalDateTime from, LocalDateTime to) {
+		OrderRange range = new OrderRange(from == null ? DEFAULT_FROM : from, to == null ? DEFAULT_TO : to);
+		if (!range.from().isBefore(range.to())) {
+			throw new BadRequestException("Export range start must be before its end");
+		}
+		return range;
+	}
+
+	@Workload(WorkloadType.ADMIN)
+	public void exportOrders(
+			OrderRange range,
+			OrderStatus status,
+			ExportFormat format,
+			OutputStream outputStream
+	) throws IOException {
+		log.info("Exporting orders created from {} to {} with status {} as {}", range.from(), range.to(), status, format);
+		OutputStream out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+		try {
+			if (format == ExportFormat.CSV) {
+				writeLine(out, "orderId,status,createdAt,expiresAt,paidAt,productId,quantity,priceSnapshot");
+				exportRepository.streamOrderItems(range.from(), range.to(), status, row -> writeLine(out, toCsvLine(row)));
+			} else {
+				OrderGrouper grouper = new OrderGrouper(out);
+				exportRepository.streamOrderItems(range.from(), range.to(), status, grouper::accept);
+				grouper.flushCurrent();
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		out.flush();
+	}
+
+	private String toCsvLine(OrderItemRow row) {
+		return row.orderId() + "," + row.status() + "," + nullToEmpty(row.createdAt()) + ","
+				+ nullToEmpty(row.expiresAt()) + "," + nullToEmpty(row.paidAt()) + ","
+				+ row.productId() + "," + row.quantity() + "," + row.priceSnapshot();
+	}
+
+	private void writeJsonLine(OutputStream out, Object value) {
+		try {
+			out.write(objectMapper.writeValueAsBytes(value));
+			out.write('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeLine(OutputStream out, String line) {
+		try {
+			out.write(line.getBytes(StandardCharsets.UTF_8));
+			out.write('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private String csv(String value) {
+		if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+			return "\"" + value.replace("\"", "\"\"") + "\"";
+		}
+		return value;
+	}
+
+	private String nullToEmpty(Object value) {
+		return value == null ? "" : value.toString();
+	}
+
+	// folds adjacent item rows of one order into a single NDJSON line
+	private class OrderGrouper {
+		private final OutputStream out;
+		private OrderExport current;
+		private BigDecimal currentTotal = BigDecimal.ZERO;
+
+		private OrderGrouper(OutputStream out) {
+			this.out = out;
+		}
+
+		private void accept(OrderItemRow row) {
+			if (current != null && !current.orderId().equals(row.orderId())) {
+				flushCurrent();
+			}
+			if (current == null) {
+				current = new OrderExport(row.orderId(), row.status(), row.createdAt(), row.expiresAt(), row.paidAt(),
+						new ArrayList<>(), null);
+				currentTotal = BigDecimal.ZERO;
+			}
+			current.items().add(new OrderItemExport(row.productId(), row.quantity(), row.priceSnapshot()));
+			currentTotal = currentTotal.add(row.priceSnapshot());
+		}
+
+		private void flushCurrent() {
+			if (current != null) {
+				writeJsonLine(out, current.withTotalPrice(currentTotal));
+				current = null;
+			}
+		}
+	}
+
+	public record OrderRange(LocalDateTime from, LocalDateTime to) {}
+
+	record OrderExport(
+			UUID orderId,
+			OrderStatus status,
+			LocalDateTime createdAt,
+			LocalDateTime expiresAt,
+			LocalDateTime paidAt,
+			List<OrderItemExport> items,
+			BigDecimal totalPrice
+	) {
+		OrderExport withTotalPrice(BigDecimal total) {
+			return new OrderExport(orderId, status, createdAt, expiresAt, paidAt, items, total);
+		}
+	}
+
+	record OrderItemExport(UUID productId, int quantity, BigDecimal priceSnapshot) {}
+}
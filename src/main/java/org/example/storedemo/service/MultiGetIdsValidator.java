@@ -0,0 +1,23 @@
+package org.example.storedemo.service;
+
+import org.example.storedemo.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+// Shared limits of the ?ids= multi-get endpoints for products and orders.
+@Component
+public class MultiGetIdsValidator {
+
+	public static final int MAX_IDS = 200;
+
+	public void validate(List<UUID> ids) {
+		if (ids == null || ids.isEmpty()) {
+			throw new BadRequestException("At least one id is required");
+		}
+		if (ids.size() > MAX_IDS) {
+			throw new BadRequestException("At most " + MAX_IDS + " ids can be requested at once");
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package org.example.storedemo.service;
+
+import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.entity.OrderEntity;
+import org.example.storedemo.entity.OrderItemEntity;
+import org.example.storedemo.util.UuidIntMap;
+
+import java.util.List;
+
+// Product -> quantity of one order on the create, pay and cancel paths, built in a UuidIntMap that is reused
+// per thread. The map is lent to the caller and handed back with release(); a nested call on the same thread
+// while it is lent out gets a fresh map instead of overwriting the first caller's quantities.
+public final class OrderQuantities {
+
+	private static final int MAX_SCRATCH_CAPACITY = 1024;
+	private static final ThreadLocal<UuidIntMap> SCRATCH = new ThreadLocal<>();
+
+	private OrderQuantities() {
+	}
+
+	public static UuidIntMap of(List<OrderCreateItemDto> items) {
+		UuidIntMap quantities = borrow();
+		for (int i = 0; i < items.size(); i++) {
+			OrderCreateItemDto item = items.get(i);
+			quantities.addTo(item.getProductId(), item.getQuantity());
+		}
+		return quantities;
+	}
+
+	public static UuidIntMap of(OrderEntity order) {
+		UuidIntMap quantities = borrow();
+		for (OrderItemEntity item : order.getItems()) {
+			quantities.put(item.getProductEntity().getId(), item.getQuantity());
+		}
+		return quantities;
+	}
+
+	// a map grown by an unusually large order is dropped rather than kept for the life of the thread
+	public static void release(UuidIntMap quantities) {
+		if (quantities.capacity() <= MAX_SCRATCH_CAPACITY) {
+			quantities.clear();
+			SCRATCH.set(quantities);
+		}
+	}
+
+	private static UuidIntMap borrow() {
+		UuidIntMap quantities = SCRATCH.get();
+		if (quantities == null) {
+			return new UuidIntMap(16);
+		}
+		// set(null) rather than remove() keeps the thread-local entry, so lending does not allocate
+		SCRATCH.set(null);
+		return quantities;
+	}
+}
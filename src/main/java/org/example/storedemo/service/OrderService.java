@@ -2,16 +2,24 @@ package org.example.storedemo.service;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.dto.response.OrderSummaryDto;
 import org.example.storedemo.entity.*;
 import org.example.storedemo.exception.BadRequestException;
 import org.example.storedemo.exception.NoStockAvailableException;
 import org.example.storedemo.exception.NotFoundException;
 import org.example.storedemo.mapper.OrderMapper;
+import org.example.storedemo.repository.ArchivedOrderRepository;
 import org.example.storedemo.repository.OrderRepository;
 import org.example.storedemo.repository.ProductRepository;
+import org.example.storedemo.service.workload.Workload;
+import org.example.storedemo.service.workload.WorkloadType;
+import org.example.storedemo.util.UuidIntMap;
+import org.example.storedemo.util.WarmupContext;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,18 +38,29 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class OrderService {
 
+	public static final Set<String> ORDER_FIELDS = Set.of("status", "createdAt", "expiresAt", "paidAt", "products");
+	public static final Set<String> ORDER_INCLUDES = Set.of("products");
+
 	private final OrderRepository orderRepository;
+	private final ArchivedOrderRepository archivedOrderRepository;
 	private final ProductRepository productRepository;
 	private final PaymentService paymentService;
 	private final ProductInventoryManager productInventoryManager;
 	private final OrderMapper orderMapper;
 	private final Clock clock;
-
-	public Page<OrderSummaryDto> getAllOrders(Pageable pageable) {
-		log.info("Requesting all orders with params: {}", pageable);
-		return orderRepository.findAll(pageable).map(orderMapper::toSummaryDto);
+	private final MeterRegistry meterRegistry;
+	private final MultiGetIdsValidator multiGetIdsValidator;
+
+	@Workload(WorkloadType.ADMIN)
+	@Transactional(readOnly = true)
+	public Page<OrderSummaryDto> getAllOrders(Pageable pageable, SparseFieldset fields, SparseFieldset include) {
+		log.info("Requesting all orders with params: {}, fields: {}, include: {}", pageable, fields, include);
+		boolean withProducts = withProducts(fields, include);
+		return orderRepository.findAll(pageable).map(order -> orderMapper.toSummaryDto(order, fields, withProducts));
 	}
 
+	@Workload(WorkloadType.CHECKOUT)
+	@Timed(value = "store.orders.pay", histogram = true, percentiles = { 0.5, 0.95, 0.99 })
 	@Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
 	public OrderSummaryDto payOrder(UUID orderId) {
 		log.info("Attempting to pay order: {}", orderId);
@@ -58,6 +77,12 @@ public class OrderService {
 		}
 
 		paymentService.pay(order.toString()); // mock implementation
+		UuidIntMap quantities = OrderQuantities.of(order);
+		try {
+			productInventoryManager.adjustStockWithRetry(quantities, StockMovement.SELL);
+		} finally {
+			OrderQuantities.release(quantities);
+		}
 		order.setStatus(OrderStatus.PAID);
 		order.setExpiresAt(null);
 		order.setPaidAt(LocalDateTime.now(clock));
@@ -67,23 +92,29 @@ public class OrderService {
 		return orderMapper.toSummaryDto(savedOrder);
 	}
 
+	@Workload(WorkloadType.CHECKOUT)
+	@Timed(value = "store.orders.create", histogram = true, percentiles = { 0.5, 0.95, 0.99 })
 	@Transactional(isolation = Isolation.SERIALIZABLE, rollbackFor = Exception.class)
 	public OrderSummaryDto createOrder(List<OrderCreateItemDto> items) {
 		validateItemsNotEmpty(items);
 
 		log.info("Creating new order with items: {}", items);
-		Map<UUID, Integer> quantityMap = toQuantityMap(items);
-
-		List<ProductEntity> products = fetchProductsAndValidateQuantity(quantityMap);
-		productInventoryManager.adjustStockWithRetry(quantityMap, false);
-
-		OrderEntity order = buildOrderFromProducts(products, quantityMap);
-		OrderEntity saved = orderRepository.save(order);
+		UuidIntMap quantities = OrderQuantities.of(items);
+		OrderEntity saved;
+		try {
+			List<ProductEntity> products = fetchProductsAndValidateQuantity(quantities);
+			productInventoryManager.adjustStockWithRetry(quantities, StockMovement.RESERVE);
+			saved = orderRepository.save(buildOrderFromProducts(products, quantities));
+		} finally {
+			OrderQuantities.release(quantities);
+		}
 
 		log.info("Created order {} with {} items", saved.getId(), saved.getItems().size());
 		return orderMapper.toSummaryDto(saved);
 	}
 
+	@Workload(WorkloadType.CHECKOUT)
+	@Timed(value = "store.orders.cancel", histogram = true, percentiles = { 0.5, 0.95, 0.99 })
 	@Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
 	public OrderSummaryDto cancelOrder(UUID orderId) {
 		log.info("Attempting to cancel order: {}", orderId);
@@ -102,9 +133,60 @@ public class OrderService {
 		return orderMapper.toSummaryDto(saved);
 	}
 
+	@Workload(WorkloadType.READ)
+	@Transactional(readOnly = true)
+	public List<OrderSummaryDto> getOrderSummaries(List<UUID> orderIds, SparseFieldset fields, SparseFieldset include) {
+		multiGetIdsValidator.validate(orderIds);
+		log.info("Fetching summaries for {} orders, fields: {}, include: {}", orderIds.size(), fields, include);
+		boolean withProducts = withProducts(fields, include);
+
+		Set<UUID> uniqueIds = new LinkedHashSet<>(orderIds);
+		Map<UUID, OrderSummaryDto> found = new HashMap<>();
+		for (OrderEntity order : orderRepository.findAllById(uniqueIds)) {
+			found.put(order.getId(), orderMapper.toSummaryDto(order, fields, withProducts));
+		}
+		if (found.size() < uniqueIds.size()) {
+			List<UUID> missing = uniqueIds.stream().filter(id -> !found.containsKey(id)).toList();
+			for (ArchivedOrderEntity order : archivedOrderRepository.findAllById(missing)) {
+				found.put(order.getId(), orderMapper.toArchivedSummaryDto(order, fields, withProducts));
+			}
+		}
+
+		return orderIds.stream()
+				.map(id -> found.containsKey(id) ? found.get(id) : notFoundSummary(id))
+				.toList();
+	}
+
+	@Workload(WorkloadType.READ)
+	@Transactional(readOnly = true)
 	public OrderSummaryDto getOrderSummary(UUID orderId) {
-		log.info("Fetching summary for order: {}", orderId);
-		return orderMapper.toSummaryDto(getOrderById(orderId));
+		return getOrderSummary(orderId, SparseFieldset.ALL, SparseFieldset.ALL);
+	}
+
+	@Workload(WorkloadType.READ)
+	@Transactional(readOnly = true)
+	public OrderSummaryDto getOrderSummary(UUID orderId, SparseFieldset fields, SparseFieldset include) {
+		log.info("Fetching summary for order: {}, fields: {}, include: {}", orderId, fields, include);
+		// items are lazy, so leaving products out of the response also skips the item and product queries
+		boolean withProducts = withProducts(fields, include);
+		return orderRepository.findById(orderId)
+				.map(order -> orderMapper.toSummaryDto(order, fields, withProducts))
+				.or(() -> archivedOrderRepository.findById(orderId)
+						.map(order -> orderMapper.toArchivedSummaryDto(order, fields, withProducts)))
+				.orElseThrow(() -> new NotFoundException("Order not found"));
+	}
+
+	private static OrderSummaryDto notFoundSummary(UUID orderId) {
+		OrderSummaryDto summary = new OrderSummaryDto();
+		summary.setOrderId(orderId);
+		summary.setErrorMessage("Order " + orderId + " not found");
+		// a marker carries no attributes besides the error
+		summary.setFields(new SparseFieldset(Set.of()));
+		return summary;
+	}
+
+	private static boolean withProducts(SparseFieldset fields, SparseFieldset include) {
+		return fields.includes("products") && include.includes("products");
 	}
 
 	private void validateItemsNotEmpty(List<OrderCreateItemDto> items) {
@@ -118,35 +200,35 @@ public class OrderService {
 				.orElseThrow(() -> new NotFoundException("Order not found"));
 	}
 
-	private Map<UUID, Integer> toQuantityMap(List<OrderCreateItemDto> items) {
-		return items.stream()
-				.collect(Collectors.toMap(
-						OrderCreateItemDto::getProductId,
-						OrderCreateItemDto::getQuantity,
-						Integer::sum));
-	}
-
-	private List<ProductEntity> fetchProductsAndValidateQuantity(Map<UUID, Integer> quantityMap) {
-		List<ProductEntity> products = productRepository.findAllById(quantityMap.keySet());
-
-		Set<UUID> foundIds = products.stream()
-				.map(ProductEntity::getId)
-				.collect(Collectors.toSet());
-
-		List<UUID> missing = quantityMap.keySet().stream()
-				.filter(id -> !foundIds.contains(id))
-				.toList();
+	private List<ProductEntity> fetchProductsAndValidateQuantity(UuidIntMap quantities) {
+		List<ProductEntity> products = productRepository.findAllById(quantities.keys());
 
-		if (!missing.isEmpty()) {
+		if (products.size() != quantities.size()) {
+			Set<UUID> foundIds = products.stream()
+					.map(ProductEntity::getId)
+					.collect(Collectors.toSet());
+			List<UUID> missing = quantities.keys().stream()
+					.filter(id -> !foundIds.contains(id))
+					.toList();
 			throw new NotFoundException("Products not found: " + missing.size() + " item(s): " + missing);
 		}
 
-		Set<ProductAmountToRequested> outOfStock = products.stream()
-				.filter(p -> p.getStockQuantity() < quantityMap.get(p.getId()))
-				.map(p -> new ProductAmountToRequested(p.getName(), p.getStockQuantity(), quantityMap.get(p.getId())))
-				.collect(Collectors.toSet());
+		Set<ProductAmountToRequested> outOfStock = null;
+		for (int i = 0; i < products.size(); i++) {
+			ProductEntity product = products.get(i);
+			int requested = quantities.get(product.getId(), 0);
+			if (product.getStockQuantity() < requested) {
+				if (outOfStock == null) {
+					outOfStock = new HashSet<>();
+				}
+				outOfStock.add(new ProductAmountToRequested(product.getName(), product.getStockQuantity(), requested));
+			}
+		}
 
-		if (!outOfStock.isEmpty()) {
+		if (outOfStock != null) {
+			if (!WarmupContext.isActive()) {
+				meterRegistry.counter("store.orders.no_stock").increment();
+			}
 			throw new NoStockAvailableException("Insufficient stock for: " + outOfStock);
 		}
 
@@ -154,19 +236,15 @@ public class OrderService {
 	}
 
 	private void updateProductStockForCancel(OrderEntity order) {
-		Map<UUID, Integer> quantityMap = order.getItems().stream()
-				.collect(Collectors.toMap(
-						i -> i.getProductEntity().getId(),
-						OrderItemEntity::getQuantity));
-
-		List<ProductEntity> products = order.getItems().stream()
-				.map(OrderItemEntity::getProductEntity)
-				.toList();
-
-		productInventoryManager.adjustStockWithRetry(quantityMap, true);
+		UuidIntMap quantities = OrderQuantities.of(order);
+		try {
+			productInventoryManager.adjustStockWithRetry(quantities, StockMovement.RELEASE);
+		} finally {
+			OrderQuantities.release(quantities);
+		}
 	}
 
-	private OrderEntity buildOrderFromProducts(List<ProductEntity> products, Map<UUID, Integer> quantityMap) {
+	private OrderEntity buildOrderFromProducts(List<ProductEntity> products, UuidIntMap quantities) {
 		LocalDateTime now = LocalDateTime.now(clock);
 		OrderEntity order = new OrderEntity();
 		order.setId(UUID.randomUUID());
@@ -174,15 +252,18 @@ public class OrderService {
 		order.setCreatedAt(now);
 		order.setExpiresAt(now.plusMinutes(30));
 
-		List<OrderItemEntity> items = products.stream()
-				.map(p -> OrderItemEntity.builder()
-						.id(UUID.randomUUID())
-						.productEntity(p)
-						.quantity(quantityMap.get(p.getId()))
-						.priceSnapshot(p.getPrice().multiply(BigDecimal.valueOf(quantityMap.get(p.getId()))))
-						.orderEntity(order)
-						.build())
-				.toList();
+		List<OrderItemEntity> items = new ArrayList<>(products.size());
+		for (int i = 0; i < products.size(); i++) {
+			ProductEntity product = products.get(i);
+			int quantity = quantities.get(product.getId(), 0);
+			items.add(OrderItemEntity.builder()
+					.id(UUID.randomUUID())
+					.productEntity(product)
+					.quantity(quantity)
+					.priceSnapshot(product.getPrice().multiply(BigDecimal.valueOf(quantity)))
+					.orderEntity(order)
+					.build());
+		}
 
 		order.setItems(items);
 		return order;
@@ -0,0 +1,51 @@
+package org.example.storedemo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.repository.ProductRepository;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Hibernate keeps the product regions consistent for entity and JPQL writes; plain JDBC writes to the
+// products table bypass it and have to drop the regions themselves.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductCacheInvalidator {
+
+	private static final String EVICT_REGISTERED_KEY = ProductCacheInvalidator.class.getName() + ".evictRegistered";
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	public void evictAfterCompletion() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			evict();
+			return;
+		}
+		if (TransactionSynchronizationManager.hasResource(EVICT_REGISTERED_KEY)) {
+			return;
+		}
+
+		TransactionSynchronizationManager.bindResource(EVICT_REGISTERED_KEY, Boolean.TRUE);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(EVICT_REGISTERED_KEY);
+				// a reader may have cached the old rows while the JDBC transaction was still open
+				evict();
+			}
+		});
+	}
+
+	public void evict() {
+		Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+		cache.evictEntityData(ProductEntity.class);
+		cache.evictQueryRegion(ProductRepository.LOOKUP_CACHE_REGION);
+		log.debug("Evicted product entity and lookup query regions");
+	}
+}
@@ -0,0 +1,171 @@
+package org.example.storedemo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.storedemo.dto.request.ProductRequest;
+import org.example.storedemo.dto.response.ProductCreationError;
+import org.example.storedemo.dto.response.ProductImportResponse;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.exception.BadRequestException;
+import org.example.storedemo.mapper.ProductMapper;
+import org.example.storedemo.repository.ProductBatchRepository;
+import org.example.storedemo.repository.ProductRepository;
+import org.example.storedemo.service.workload.Workload;
+import org.example.storedemo.service.workload.WorkloadType;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+	private static final int CHUNK_SIZE = 1_000;
+	private static final int MAX_REPORTED_ERRORS = 1_000;
+	private static final int PRICE_SCALE = 2;
+
+	private final ProductRepository productRepository;
+	private final ProductBatchRepository productBatchRepository;
+	private final ProductMapper productMapper;
+
+	@Workload(WorkloadType.ADMIN)
+	public ProductImportResponse importProducts(InputStream csv) {
+		if (csv == null) {
+			throw new BadRequestException("Could not import products because there is no CSV provided");
+		}
+
+		ImportProgress progress = new ImportProgress();
+		List<CsvRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+					continue;
+				}
+
+				progress.totalRows++;
+				CsvRow row = parseRow(line, lineNumber, progress);
+				if (row != null) {
+					chunk.add(row);
+				}
+				if (chunk.size() == CHUNK_SIZE) {
+					insertChunk(chunk, progress);
+					chunk.clear();
+				}
+			}
+		} catch (IOException e) {
+			throw new BadRequestException("Could not read products CSV: " + e.getMessage());
+		}
+
+		if (!chunk.isEmpty()) {
+			insertChunk(chunk, progress);
+		}
+
+		log.info("Product import finished. Rows: {}, imported: {}, failed: {}",
+				progress.totalRows, progress.importedCount, progress.failedCount);
+		return new ProductImportResponse(
+				UUID.randomUUID(), progress.totalRows, progress.importedCount, progress.failedCount, progress.errors);
+	}
+
+	private CsvRow parseRow(String line, int lineNumber, ImportProgress progress) {
+		String[] tokens = line.split(",");
+		String name = tokens.length > 0 ? tokens[0].trim() : "";
+		if (tokens.length != 3) {
+			progress.reject(name, lineNumber, "Expected 3 columns: name,price,stockQuantity");
+			return null;
+		}
+		if (name.isEmpty()) {
+			progress.reject(name, lineNumber, "Name must not be blank");
+			return null;
+		}
+
+		try {
+			BigDecimal price = new BigDecimal(tokens[1].trim());
+			int quantity = Integer.parseInt(tokens[2].trim());
+			if (price.signum() < 0) {
+				progress.reject(name, lineNumber, "Price must be greater than or equal to 0");
+				return null;
+			}
+			if (price.stripTrailingZeros().scale() > PRICE_SCALE) {
+				progress.reject(name, lineNumber, "Price must have at most 2 decimal places");
+				return null;
+			}
+			if (quantity < 0) {
+				progress.reject(name, lineNumber, "Stock quantity must not be negative");
+				return null;
+			}
+			return new CsvRow(lineNumber, new ProductRequest(name, price, quantity));
+		} catch (NumberFormatException e) {
+			progress.reject(name, lineNumber, "Price and stock quantity must be numbers");
+			return null;
+		}
+	}
+
+	private void insertChunk(List<CsvRow> chunk, ImportProgress progress) {
+		Set<String> names = new HashSet<>(chunk.size());
+		chunk.forEach(row -> names.add(row.request().getName()));
+		Set<String> existingNames = productRepository.findExistingNames(names);
+
+		Set<String> chunkNames = new HashSet<>(chunk.size());
+		List<ProductEntity> products = new ArrayList<>(chunk.size());
+		List<CsvRow> accepted = new ArrayList<>(chunk.size());
+		for (CsvRow row : chunk) {
+			String name = row.request().getName();
+			if (existingNames.contains(name) || !chunkNames.add(name)) {
+				progress.reject(name, row.lineNumber(), "Product with this name already exists");
+				continue;
+			}
+			products.add(productMapper.toEntity(row.request()));
+			accepted.add(row);
+		}
+		if (products.isEmpty()) {
+			return;
+		}
+
+		try {
+			productBatchRepository.insertAll(products);
+			progress.importedCount += products.size();
+		} catch (DataAccessException ex) {
+			log.error("Error while importing chunk of {} products: {}", products.size(), ex.getMessage());
+			accepted.forEach(row -> progress.reject(
+					row.request().getName(), row.lineNumber(), "Unexpected error: " + ex.getMessage()));
+		}
+		log.info("Product import progress. Rows: {}, imported: {}, failed: {}",
+				progress.totalRows, progress.importedCount, progress.failedCount);
+	}
+
+	private boolean isHeader(String line) {
+		return line.trim().toLowerCase().startsWith("name,");
+	}
+
+	private record CsvRow(int lineNumber, ProductRequest request) {}
+
+	private static class ImportProgress {
+		private int totalRows;
+		private int importedCount;
+		private int failedCount;
+		private final List<ProductCreationError> errors = new ArrayList<>();
+
+		private void reject(String productName, int lineNumber, String message) {
+			failedCount++;
+			if (errors.size() < MAX_REPORTED_ERRORS) {
+				errors.add(new ProductCreationError(productName, "Line " + lineNumber + ": " + message));
+			}
+		}
+	}
+}
@@ -1,13 +1,15 @@
 package org.example.storedemo.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.storedemo.entity.ProductEntity;
 import org.example.storedemo.repository.ProductRepository;
+import org.example.storedemo.util.UuidIntMap;
+import org.example.storedemo.util.WarmupContext;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -17,28 +19,35 @@ public class ProductInventoryManager {
 
 	private final ProductRepository productRepository;
 	private final ProductService productService;
+	private final MeterRegistry meterRegistry;
 	private static final int MAX_RETRIES = 3;
 
-	public void adjustStockWithRetry(Map<UUID, Integer> quantityChanges, boolean releaseStock) {
-		for (Map.Entry<UUID, Integer> entry : quantityChanges.entrySet()) {
-			UUID productId = entry.getKey();
-			int delta = entry.getValue() * (releaseStock ? 1 : -1);
+	public void adjustStockWithRetry(UuidIntMap quantityChanges, StockMovement movement) {
+		for (int i = 0; i < quantityChanges.size(); i++) {
+			UUID productId = quantityChanges.keyAt(i);
+			int quantity = quantityChanges.valueAt(i);
 			int retries = 0;
 			boolean success = false;
 
 			while (!success && retries < MAX_RETRIES) {
 				try {
 					ProductEntity product = productService.findProductById(productId);
-					product.setStockQuantity(product.getStockQuantity() + delta);
+					movement.apply(product, quantity);
 					productRepository.saveAndFlush(product); // Optimistic lock trigger
 					success = true;
 				} catch (OptimisticLockException e) {
 					log.warn("Optimistic lock on product {} (attempt {})", productId, retries + 1);
+					if (!WarmupContext.isActive()) {
+						meterRegistry.counter("store.inventory.optimistic_retries", "movement", movement.name()).increment();
+					}
 					retries++;
 				}
 			}
 
 			if (!success) {
+				if (!WarmupContext.isActive()) {
+					meterRegistry.counter("store.inventory.retries_exhausted", "movement", movement.name()).increment();
+				}
 				throw new IllegalStateException("Failed to update stock for product " + productId + " after retries");
 			}
 		}
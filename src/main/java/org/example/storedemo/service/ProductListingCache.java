@@ -0,0 +1,93 @@
+package org.example.storedemo.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+@RequiredArgsConstructor
+public class ProductListingCache {
+
+	private static final int MAX_ENTRIES = 256;
+
+	// catalog versions restart from zero on every boot, so the epoch keeps ETags from colliding across restarts
+	private final String epoch = Long.toHexString(System.currentTimeMillis());
+	private final Map<String, CachedPage> pages = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	private final CatalogVersionService catalogVersionService;
+
+	public String currentEtag(String key, boolean gzip) {
+		return withEncoding(etag(catalogVersionService.current(), key), gzip);
+	}
+
+	public CachedPage getOrRender(String key, Supplier<byte[]> renderer) {
+		long version = catalogVersionService.current();
+		CachedPage cached = pages.get(key);
+		if (cached != null && cached.version() == version) {
+			hits.incrementAndGet();
+			return cached;
+		}
+
+		misses.incrementAndGet();
+		// the version is read before rendering: a concurrent write can only make the page newer than its ETag,
+		// never older, and the next request sees the bumped version and renders again
+		byte[] body = renderer.get();
+		if (ResilientReadCache.staleAge() != null) {
+			// a stale fallback must not be cached, or be revalidated, as the current version of the page
+			return new CachedPage(version, null, body, gzip(body));
+		}
+		CachedPage page = new CachedPage(version, etag(version, key), body, gzip(body));
+		if (pages.size() >= MAX_ENTRIES) {
+			pages.clear();
+		}
+		pages.merge(key, page, (existing, fresh) -> existing.version() >= fresh.version() ? existing : fresh);
+		return page;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	private String etag(long version, String key) {
+		return "\"" + epoch + "-" + version + "-" + Integer.toHexString(key.hashCode()) + "\"";
+	}
+
+	// the gzip bytes are a different representation, and a strong validator must not match both
+	private static String withEncoding(String etag, boolean gzip) {
+		if (etag == null || !gzip) {
+			return etag;
+		}
+		return etag.substring(0, etag.length() - 1) + "-gz\"";
+	}
+
+	private static byte[] gzip(byte[] body) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(body);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	public record CachedPage(long version, String etag, byte[] body, byte[] gzipBody) {
+
+		public String etag(boolean gzip) {
+			return withEncoding(etag, gzip);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package org.example.storedemo.service;
+
+import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.service.replica.ReplicaLagTracker;
+import org.example.storedemo.util.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Single-flight for the public product lookups. Keys carry the catalog version, so a client whose own write
+// committed after a lookup started never joins it. Only the key spaces listed in app.single-flight.key-spaces
+// are coalesced.
+@Component
+public class ProductLookupCoalescer {
+
+	public static final String BY_ID = "product-by-id";
+	public static final String BY_NAME = "product-by-name";
+
+	private final CatalogVersionService catalogVersionService;
+	private final Set<String> enabledKeySpaces;
+	private final SingleFlight<VersionedKey, ProductDto> byId;
+	private final SingleFlight<VersionedKey, Page<ProductDto>> byName;
+
+	public ProductLookupCoalescer(
+			CatalogVersionService catalogVersionService,
+			@Value("${app.single-flight.key-spaces:" + BY_ID + "," + BY_NAME + "}") Set<String> enabledKeySpaces,
+			@Value("${app.single-flight.max-keys:10000}") int maxKeys
+	) {
+		this.catalogVersionService = catalogVersionService;
+		this.enabledKeySpaces = enabledKeySpaces;
+		this.byId = new SingleFlight<>(maxKeys);
+		this.byName = new SingleFlight<>(maxKeys);
+	}
+
+	public ProductDto findById(UUID id, Supplier<ProductDto> loader) {
+		return execute(BY_ID, byId, id, loader);
+	}
+
+	public Page<ProductDto> findByName(String name, Pageable pageable, Supplier<Page<ProductDto>> loader) {
+		return execute(BY_NAME, byName, new NameLookup(name, pageable), loader);
+	}
+
+	public Map<String, SingleFlight<?, ?>> keySpaces() {
+		return Map.of(BY_ID, byId, BY_NAME, byName);
+	}
+
+	private <V> V execute(String keySpace, SingleFlight<VersionedKey, V> flight, Object lookup, Supplier<V> loader) {
+		// inside a transaction the caller may see its own uncommitted rows, which nobody else may share
+		if (!enabledKeySpaces.contains(keySpace) || TransactionSynchronizationManager.isActualTransactionActive()) {
+			return flight.bypass(loader);
+		}
+		// the result is handed to other clients, so the shared load must not come from a replica missing their writes
+		return flight.execute(new VersionedKey(catalogVersionService.current(), lookup),
+				() -> ReplicaLagTracker.callWithCaughtUpReplica(loader));
+	}
+
+	private record VersionedKey(long catalogVersion, Object lookup) {}
+
+	private record NameLookup(String name, Pageable pageable) {}
+}
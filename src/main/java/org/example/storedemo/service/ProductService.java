@@ -3,15 +3,21 @@ package org.example.storedemo.service;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.ProductStockDto;
 import org.example.storedemo.dto.request.ProductRequest;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.dto.response.ProductCreateResponse;
 import org.example.storedemo.dto.response.ProductCreationError;
 import org.example.storedemo.entity.ProductEntity;
 import org.example.storedemo.exception.BadRequestException;
 import org.example.storedemo.exception.NotFoundException;
 import org.example.storedemo.mapper.ProductMapper;
-import org.example.storedemo.repository.OrderItemRepository;
+import org.example.storedemo.repository.ProductProjectionRepository;
 import org.example.storedemo.repository.ProductRepository;
+import org.example.storedemo.service.workload.Workload;
+import org.example.storedemo.service.workload.WorkloadType;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -19,31 +25,72 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class ProductService {
 
+	private static final int UPDATE_CHUNK_SIZE = 500;
+	public static final Set<String> PRODUCT_FIELDS = Set.of("name", "price", "stockQuantity", "version");
+	// latency budgets and staleness limits under app.resilience.endpoints
+	public static final String PRODUCTS_LIST_READ = "products-list";
+	public static final String PRODUCTS_BY_IDS_READ = "products-by-ids";
+
 	private final ProductRepository productRepository;
-	private final OrderItemRepository orderItemRepository;
+	private final ProductProjectionRepository productProjectionRepository;
+	private final ProductUpdateBatchService productUpdateBatchService;
 	private final ProductMapper productMapper;
+	private final ProductLookupCoalescer productLookupCoalescer;
+	private final ResilientReadCache resilientReadCache;
+	private final MultiGetIdsValidator multiGetIdsValidator;
+
+	@Workload(WorkloadType.READ)
+	public Page<ProductDto> getAllProducts(Pageable pageable, SparseFieldset fields) {
+		log.info("Requesting all products with params: {}, fields: {}", pageable, fields);
+		return resilientReadCache.get(PRODUCTS_LIST_READ, List.of(pageable, fields), () -> {
+			if (fields.isAll()) {
+				return productRepository.findAll(pageable).map(productMapper::toDto);
+			}
+			return productProjectionRepository.findAll(fields.fields(), pageable);
+		});
+	}
 
-	public Page<ProductDto> getAllProducts(Pageable pageable) {
-		log.info("Requesting all products with params: {}", pageable);
-		return productRepository.findAll(pageable).map(productMapper::toDto);
+	@Workload(WorkloadType.READ)
+	public List<ProductDto> getProductsByIds(List<UUID> ids) {
+		multiGetIdsValidator.validate(ids);
+		log.info("Requesting {} products by id", ids.size());
+
+		return resilientReadCache.get(PRODUCTS_BY_IDS_READ, new ArrayList<>(ids), () -> {
+			Map<UUID, ProductDto> found = new HashMap<>();
+			for (ProductEntity product : productRepository.findAllById(new LinkedHashSet<>(ids))) {
+				found.put(product.getId(), productMapper.toDto(product));
+			}
+			return ids.stream()
+					.map(id -> found.containsKey(id)
+							? found.get(id)
+							: new ProductDto(id, null, null, null, null, "Product with id " + id + " not found"))
+					.toList();
+		});
 	}
 
+	@Workload(WorkloadType.ADMIN)
+	public Page<ProductStockDto> getProductStock(Pageable pageable) {
+		log.info("Requesting product stock with params: {}", pageable);
+		return productRepository.findAll(pageable).map(productMapper::toStockDto);
+	}
+
+	@Workload(WorkloadType.ADMIN)
 	public Page<ProductDto> getProductIdOrByName(UUID productId, String productName, Pageable pageable) {
 		if (productId != null) {
 			log.info("Requesting product by id: {}", productId);
-			ProductEntity productEntity = findProductById(productId);
-			return new PageImpl<>(List.of(productMapper.toDto(productEntity)), pageable, 1);
+			ProductDto product = productLookupCoalescer.findById(productId, () -> productMapper.toDto(findProductById(productId)));
+			return new PageImpl<>(List.of(product), pageable, 1);
 		}
 		if (productName != null) {
-			log.info("Requesting product by name: {}", productId);
-			return findProductsContainsName(productName, pageable).map(productMapper::toDto);
+			log.info("Requesting product by name: {}", productName);
+			return productLookupCoalescer.findByName(productName, pageable,
+					() -> findProductsContainsName(productName, pageable).map(productMapper::toDto));
 		} else {
 			throw new BadRequestException("Product id or name is required");
 		}
@@ -62,6 +109,7 @@ public class ProductService {
 		return productsByName;
 	}
 
+	@Workload(WorkloadType.ADMIN)
 	@Transactional(rollbackFor = Exception.class)
 	public ProductCreateResponse createProduct(ProductRequest productToCreate) {
 		if (productToCreate == null) {
@@ -79,13 +127,13 @@ public class ProductService {
 		return new ProductCreateResponse(created, errors);
 	}
 
+	@Workload(WorkloadType.ADMIN)
 	@Transactional(rollbackFor = Exception.class)
 	public ProductDto deleteProduct(UUID productId) {
 		ProductEntity productToDelete = findProductById(productId);
 		log.info("Attempting to delete product id: {}, name: {}", productToDelete.getId(), productToDelete.getName());
 
-		boolean productInActiveOrders = orderItemRepository.existsByProductIdInActiveOrders(productToDelete.getId());
-		if (productInActiveOrders) {
+		if (productToDelete.getActiveOrderCount() > 0) {
 			throw new BadRequestException("Product with id " + productToDelete.getId() + " is already in active orders");
 		}
 
@@ -94,16 +142,26 @@ public class ProductService {
 		return productMapper.toDto(productToDelete);
 	}
 
-	@Transactional(rollbackFor = Exception.class)
+	@Workload(WorkloadType.ADMIN)
 	public List<ProductDto> updateProduct(Map<UUID, ProductRequest> productRequests) {
 		if (productRequests == null || productRequests.isEmpty()) {
 			throw new BadRequestException("Could not update products because there are no updates provided");
 		}
 
 		log.info("Attempting to update {} products", productRequests.size());
-		return productRequests.entrySet().stream()
-				.map(this::updateSingleProduct)
-				.collect(Collectors.toList());
+		List<ProductDto> results = new ArrayList<>(productRequests.size());
+		Map<UUID, ProductRequest> chunk = new LinkedHashMap<>();
+		for (Map.Entry<UUID, ProductRequest> entry : productRequests.entrySet()) {
+			chunk.put(entry.getKey(), entry.getValue());
+			if (chunk.size() == UPDATE_CHUNK_SIZE) {
+				results.addAll(updateChunk(chunk));
+				chunk = new LinkedHashMap<>();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			results.addAll(updateChunk(chunk));
+		}
+		return results;
 	}
 
 	private void handleSingleProductCreation(
@@ -127,23 +185,29 @@ public class ProductService {
 		}
 	}
 
-	private ProductDto updateSingleProduct(Map.Entry<UUID, ProductRequest> entry) {
-		UUID uuid = entry.getKey();
-		ProductRequest request = entry.getValue();
-		ProductEntity product = findProductById(uuid);
-
-		if (isUnchanged(product, request)) {
-			log.info("Product with id {} is equal to new data. No update needed", uuid);
-			return productMapper.toDto(product);
+	// a failed chunk is rolled back as a whole, so its rows are retried one by one and only the failing ones are reported
+	private List<ProductDto> updateChunk(Map<UUID, ProductRequest> chunk) {
+		try {
+			return productUpdateBatchService.updateChunk(chunk);
+		} catch (OptimisticLockingFailureException | DataIntegrityViolationException ex) {
+			if (chunk.size() == 1) {
+				return List.of(updateFailure(chunk.keySet().iterator().next(), ex));
+			}
+			log.warn("Failed to update chunk of {} products, retrying one by one: {}", chunk.size(), ex.getMessage());
+			List<ProductDto> results = new ArrayList<>(chunk.size());
+			for (Map.Entry<UUID, ProductRequest> entry : chunk.entrySet()) {
+				results.addAll(updateChunk(Map.of(entry.getKey(), entry.getValue())));
+			}
+			return results;
 		}
+	}
 
-		product.setName(request.getName());
-		product.setPrice(request.getPrice());
-		product.setStockQuantity(request.getStockQuantity());
-		ProductEntity updated = productRepository.save(product);
-
-		log.info("Product with id: {}, name: {} was updated", uuid, updated.getName());
-		return productMapper.toDto(updated);
+	private ProductDto updateFailure(UUID id, RuntimeException ex) {
+		log.warn("Failed to update product {}: {}", id, ex.getMessage());
+		String errorMessage = ex instanceof DataIntegrityViolationException
+				? "Product update violates a data constraint"
+				: "Product was modified concurrently, retry the update";
+		return new ProductDto(id, null, null, 0, errorMessage);
 	}
 
 	public ProductEntity findProductById(UUID id) {
@@ -151,9 +215,4 @@ public class ProductService {
 				() -> new NotFoundException("Product with id " + id + " not found"));
 	}
 
-	private boolean isUnchanged(ProductEntity existing, ProductRequest incoming) {
-		return existing.getName().equals(incoming.getName()) &&
-				existing.getPrice().equals(incoming.getPrice()) &&
-				existing.getStockQuantity() == incoming.getStockQuantity();
-	}
 }
@@ -0,0 +1,91 @@
+package org.example.storedemo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.request.ProductRequest;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.mapper.ProductMapper;
+import org.example.storedemo.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductUpdateBatchService {
+
+	private final ProductRepository productRepository;
+	private final ProductMapper productMapper;
+
+	@Transactional(rollbackFor = Exception.class)
+	public List<ProductDto> updateChunk(Map<UUID, ProductRequest> chunk) {
+		Map<UUID, ProductEntity> products = productRepository.findAllById(chunk.keySet()).stream()
+				.collect(Collectors.toMap(ProductEntity::getId, Function.identity()));
+		Map<String, UUID> nameOwners = new HashMap<>();
+		productRepository.findAllByNameIn(chunk.values().stream().map(ProductRequest::getName).toList())
+				.forEach(product -> nameOwners.put(product.getName(), product.getId()));
+
+		Map<UUID, ProductDto> rejected = new HashMap<>();
+		int updated = 0;
+		for (Map.Entry<UUID, ProductRequest> entry : chunk.entrySet()) {
+			UUID id = entry.getKey();
+			ProductRequest request = entry.getValue();
+			ProductEntity product = products.get(id);
+
+			if (product == null) {
+				rejected.put(id, new ProductDto(id, null, null, 0, "Product with id " + id + " not found"));
+				continue;
+			}
+			if (request.getVersion() != null && request.getVersion() != product.getVersion()) {
+				rejected.put(id, withError(product, "Product version " + request.getVersion()
+						+ " does not match current version " + product.getVersion()));
+				continue;
+			}
+			UUID nameOwner = nameOwners.putIfAbsent(request.getName(), id);
+			if (nameOwner != null && !nameOwner.equals(id)) {
+				rejected.put(id, withError(product, "Product with this name already exists"));
+				continue;
+			}
+			if (isUnchanged(product, request)) {
+				log.debug("Product with id {} is equal to new data. No update needed", id);
+				continue;
+			}
+
+			product.setName(request.getName());
+			product.setPrice(request.getPrice());
+			product.setStockQuantity(request.getStockQuantity());
+			updated++;
+		}
+
+		// dirty products go out as one JDBC batch, versions are bumped on flush
+		productRepository.flush();
+		log.info("Updated {} of {} products in chunk", updated, chunk.size());
+
+		List<ProductDto> results = new ArrayList<>(chunk.size());
+		for (UUID id : chunk.keySet()) {
+			results.add(rejected.containsKey(id) ? rejected.get(id) : productMapper.toDto(products.get(id)));
+		}
+		return results;
+	}
+
+	private ProductDto withError(ProductEntity product, String errorMessage) {
+		ProductDto dto = productMapper.toDto(product);
+		dto.setErrorMessage(errorMessage);
+		return dto;
+	}
+
+	private boolean isUnchanged(ProductEntity existing, ProductRequest incoming) {
+		return existing.getName().equals(incoming.getName()) &&
+				existing.getPrice().equals(incoming.getPrice()) &&
+				existing.getStockQuantity() == incoming.getStockQuantity();
+	}
+}
@@ -0,0 +1,194 @@
+package org.example.storedemo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.storedemo.service.replica.ReplicaLagTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Stale-while-revalidate for read endpoints. The first caller for a key runs the query on its own thread;
+// callers arriving while that query is in flight wait for it, but only until it has been running for the
+// endpoint's latency budget. After that they get the last good result instead, as long as it is not older than
+// the endpoint's max-stale, and the running query refreshes the fallback when it finishes. A healthy database
+// therefore never produces stale answers. Endpoints without settings under app.resilience.endpoints are read
+// directly.
+@Slf4j
+@Component
+public class ResilientReadCache {
+
+	private static final String STALE_AGE_ATTRIBUTE = ResilientReadCache.class.getName() + ".staleAge";
+
+	private final Map<String, Budget> budgets;
+	private final int maxEntries;
+	private final CatalogVersionService catalogVersionService;
+	private final Clock clock;
+	private final MeterRegistry meterRegistry;
+
+	private final Map<EntryKey, Entry> lastGood = new ConcurrentHashMap<>();
+	private final Map<FlightKey, Flight> inFlight = new ConcurrentHashMap<>();
+
+	public ResilientReadCache(
+			Environment environment,
+			CatalogVersionService catalogVersionService,
+			Clock clock,
+			MeterRegistry meterRegistry,
+			@Value("${app.resilience.max-entries:1000}") int maxEntries
+	) {
+		this.budgets = Binder.get(environment)
+				.bind("app.resilience.endpoints", Bindable.mapOf(String.class, Budget.class))
+				.orElse(Map.of());
+		this.maxEntries = maxEntries;
+		this.catalogVersionService = catalogVersionService;
+		this.clock = clock;
+		this.meterRegistry = meterRegistry;
+	}
+
+	// Duration of the oldest stale result served to the current request, null if everything was fresh
+	public static Duration staleAge() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		return attributes == null ? null : (Duration) attributes.getAttribute(STALE_AGE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <V> V get(String endpoint, Object key, Supplier<V> loader) {
+		Budget budget = budgets.get(endpoint);
+		// inside a transaction the caller may see its own uncommitted rows, which nobody else may share
+		if (budget == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+			return loader.get();
+		}
+
+		EntryKey entryKey = new EntryKey(endpoint, key);
+		// a caller whose own write committed after a query started gets a new key and never joins that query
+		FlightKey flightKey = new FlightKey(catalogVersionService.current(), entryKey);
+		Flight flight = new Flight(new CompletableFuture<>(), System.nanoTime());
+		Flight existing = inFlight.putIfAbsent(flightKey, flight);
+		if (existing == null) {
+			return (V) lead(entryKey, flightKey, flight, loader, budget);
+		}
+		return (V) follow(entryKey, existing, budget);
+	}
+
+	private Object lead(EntryKey key, FlightKey flightKey, Flight flight, Supplier<?> loader, Budget budget) {
+		try {
+			// the result is handed to other callers and kept as fallback, so it must not come from a lagging replica
+			Object value = ReplicaLagTracker.callWithCaughtUpReplica(loader);
+			if (lastGood.size() >= maxEntries) {
+				lastGood.clear();
+			}
+			lastGood.put(key, new Entry(value, clock.instant()));
+			flight.result().complete(value);
+			count(key.endpoint(), "fresh");
+			return value;
+		} catch (RuntimeException | Error e) {
+			flight.result().completeExceptionally(e);
+			Entry last = lastGood.get(key);
+			if (e instanceof DataAccessException && servable(last, budget)) {
+				log.warn("Serving stale {} after a failed read: {}", key.endpoint(), e.getMessage());
+				return serveStale(key.endpoint(), last, "error");
+			}
+			throw e;
+		} finally {
+			inFlight.remove(flightKey, flight);
+		}
+	}
+
+	private Object follow(EntryKey key, Flight flight, Budget budget) {
+		Entry last = lastGood.get(key);
+		if (!servable(last, budget)) {
+			// nothing recent enough to fall back to, so wait as long as the query takes
+			count(key.endpoint(), "fresh");
+			return await(flight.result());
+		}
+
+		long remainingNanos = budget.latencyBudget().toNanos() - (System.nanoTime() - flight.startedNanos());
+		try {
+			// a query already past its budget is not waited for at all
+			Object value = flight.result().get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+			count(key.endpoint(), "fresh");
+			return value;
+		} catch (TimeoutException e) {
+			return serveStale(key.endpoint(), last, "slow");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof DataAccessException) {
+				return serveStale(key.endpoint(), last, "error");
+			}
+			throw rethrow(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return serveStale(key.endpoint(), last, "slow");
+		}
+	}
+
+	private boolean servable(Entry last, Budget budget) {
+		return last != null && age(last).compareTo(budget.maxStale()) <= 0;
+	}
+
+	private Object serveStale(String endpoint, Entry last, String reason) {
+		Duration age = age(last);
+		count(endpoint, "stale");
+		meterRegistry.counter("store.resilience.stale_reasons", "endpoint", endpoint, "reason", reason).increment();
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			Duration previous = (Duration) attributes.getAttribute(STALE_AGE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+			if (previous == null || previous.compareTo(age) < 0) {
+				attributes.setAttribute(STALE_AGE_ATTRIBUTE, age, RequestAttributes.SCOPE_REQUEST);
+			}
+		}
+		return last.value();
+	}
+
+	private Duration age(Entry entry) {
+		return Duration.between(entry.loadedAt(), clock.instant());
+	}
+
+	private void count(String endpoint, String result) {
+		meterRegistry.counter("store.resilience.reads", "endpoint", endpoint, "result", result).increment();
+	}
+
+	private static Object await(CompletableFuture<Object> result) {
+		try {
+			return result.join();
+		} catch (CompletionException e) {
+			throw rethrow(e.getCause());
+		}
+	}
+
+	private static RuntimeException rethrow(Throwable cause) {
+		if (cause instanceof RuntimeException runtime) {
+			throw runtime;
+		}
+		if (cause instanceof Error error) {
+			throw error;
+		}
+		throw new IllegalStateException(cause);
+	}
+
+	public record Budget(Duration latencyBudget, Duration maxStale) {}
+
+	private record EntryKey(String endpoint, Object key) {}
+
+	private record FlightKey(long catalogVersion, EntryKey entry) {}
+
+	private record Flight(CompletableFuture<Object> result, long startedNanos) {}
+
+	private record Entry(Object value, Instant loadedAt) {}
+}
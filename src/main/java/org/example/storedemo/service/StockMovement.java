@@ -0,0 +1,37 @@
+package org.example.storedemo.service;
+
+import org.example.storedemo.entity.ProductEntity;
+
+public enum StockMovement {
+	RESERVE {
+		@Override
+		public void apply(ProductEntity product, int quantity) {
+			product.setStockQuantity(product.getStockQuantity() - quantity);
+			product.setReservedQuantity(product.getReservedQuantity() + quantity);
+			product.setActiveOrderCount(product.getActiveOrderCount() + 1);
+		}
+	},
+	RELEASE {
+		@Override
+		public void apply(ProductEntity product, int quantity) {
+			product.setStockQuantity(product.getStockQuantity() + quantity);
+			product.setReservedQuantity(product.getReservedQuantity() - quantity);
+			product.setActiveOrderCount(product.getActiveOrderCount() - 1);
+		}
+	},
+	SELL {
+		@Override
+		public void apply(ProductEntity product, int quantity) {
+			product.setReservedQuantity(product.getReservedQuantity() - quantity);
+			product.setSoldQuantity(product.getSoldQuantity() + quantity);
+		}
+	},
+	ARCHIVE_SOLD {
+		@Override
+		public void apply(ProductEntity product, int quantity) {
+			product.setActiveOrderCount(product.getActiveOrderCount() - 1);
+		}
+	};
+
+	public abstract void apply(ProductEntity product, int quantity);
+}
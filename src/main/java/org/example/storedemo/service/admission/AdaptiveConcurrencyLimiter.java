@@ -0,0 +1,97 @@
+package org.example.storedemo.service.admission;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// AIMD limit on concurrent checkout requests. Every completed request is a sample: a slow or failed one cuts the
+// limit by the backoff ratio, a fast one while the limit is actually being used raises it by one. The top
+// slice of the limit is reserved for CRITICAL requests, so payments still get in when new orders are shed.
+public class AdaptiveConcurrencyLimiter {
+
+	public enum Priority {
+		CRITICAL,
+		NORMAL
+	}
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long latencyThresholdNanos;
+	private final double backoffRatio;
+	private final double criticalReserve;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Map<Priority, LongAdder> rejected = new EnumMap<>(Priority.class);
+	private double limit; // guarded by this
+	private volatile int currentLimit;
+
+	public AdaptiveConcurrencyLimiter(
+			int initialLimit,
+			int minLimit,
+			int maxLimit,
+			Duration latencyThreshold,
+			double backoffRatio,
+			double criticalReserve
+	) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.latencyThresholdNanos = latencyThreshold.toNanos();
+		this.backoffRatio = backoffRatio;
+		this.criticalReserve = criticalReserve;
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+		this.currentLimit = (int) limit;
+		for (Priority priority : Priority.values()) {
+			rejected.put(priority, new LongAdder());
+		}
+	}
+
+	public boolean tryAcquire(Priority priority) {
+		int allowed = allowed(priority, currentLimit);
+		while (true) {
+			int current = inFlight.get();
+			if (current >= allowed) {
+				rejected.get(priority).increment();
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	public void release(Duration latency, boolean dropped) {
+		int inFlightBefore = inFlight.getAndDecrement();
+		onSample(latency.toNanos(), dropped, inFlightBefore);
+	}
+
+	private synchronized void onSample(long latencyNanos, boolean dropped, int inFlightBefore) {
+		if (dropped || latencyNanos > latencyThresholdNanos) {
+			limit = Math.max(minLimit, limit * backoffRatio);
+		} else if (inFlightBefore * 2 >= limit) {
+			// only grow while the limit is what holds requests back, not on an idle system
+			limit = Math.min(maxLimit, limit + 1);
+		}
+		currentLimit = (int) limit;
+	}
+
+	private int allowed(Priority priority, int limit) {
+		if (priority == Priority.CRITICAL) {
+			return limit;
+		}
+		return Math.max(1, limit - (int) Math.ceil(limit * criticalReserve));
+	}
+
+	public int getLimit() {
+		return currentLimit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public long getRejected(Priority priority) {
+		return rejected.get(priority).sum();
+	}
+}
@@ -0,0 +1,46 @@
+package org.example.storedemo.service.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.storedemo.exception.ServiceOverloadedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+// Rejects a write request before its body is even read when the limiter is full, instead of letting it queue
+// for a connection until the pool timeout. Reads are never limited here.
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+	private static final String STARTED_AT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".startedAt";
+
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final AdaptiveConcurrencyLimiter.Priority priority;
+	private final long retryAfterSeconds;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+			return true;
+		}
+		if (!limiter.tryAcquire(priority)) {
+			// kept by sendError, so the error body still carries it
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+			throw new ServiceOverloadedException("Too many checkout requests in progress, retry in " + retryAfterSeconds + " s");
+		}
+		request.setAttribute(STARTED_AT_ATTRIBUTE, System.nanoTime());
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		if (!(request.getAttribute(STARTED_AT_ATTRIBUTE) instanceof Long startedAt)) {
+			return;
+		}
+		request.removeAttribute(STARTED_AT_ATTRIBUTE);
+		limiter.release(Duration.ofNanos(System.nanoTime() - startedAt), ex != null || response.getStatus() >= 500);
+	}
+}
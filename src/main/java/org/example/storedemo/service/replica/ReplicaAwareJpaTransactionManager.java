@@ -0,0 +1,43 @@
+package org.example.storedemo.service.replica;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Read-only transactions may be served by a lagging replica, and what they load must not land in the shared
+// second-level and query caches: the query cache only checks entries against the primary's update timestamps,
+// so a replica result missing a committed write would be served as current. Such sessions still read the
+// caches (CacheMode.GET), which only ever hold data from the primary.
+public class ReplicaAwareJpaTransactionManager extends JpaTransactionManager {
+
+	@Override
+	protected void doBegin(Object transaction, TransactionDefinition definition) {
+		super.doBegin(transaction, definition);
+		if (definition.isReadOnly()) {
+			Session session = currentSession();
+			if (session != null) {
+				session.setCacheMode(CacheMode.GET);
+			}
+		}
+	}
+
+	@Override
+	protected void doCleanupAfterCompletion(Object transaction) {
+		// an open-in-view EntityManager outlives the transaction and may run a read-write one next
+		Session session = currentSession();
+		if (session != null && session.isOpen() && session.getCacheMode() == CacheMode.GET) {
+			session.setCacheMode(CacheMode.NORMAL);
+		}
+		super.doCleanupAfterCompletion(transaction);
+	}
+
+	private Session currentSession() {
+		if (TransactionSynchronizationManager.getResource(obtainEntityManagerFactory()) instanceof EntityManagerHolder holder) {
+			return holder.getEntityManager().unwrap(Session.class);
+		}
+		return null;
+	}
+}
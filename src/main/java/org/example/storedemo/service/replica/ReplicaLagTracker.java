@@ -0,0 +1,172 @@
+package org.example.storedemo.service.replica;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Numbers committed write transactions on the primary and remembers which number the replica has applied.
+// A read may use the replica only when it is not behind by more than the allowed lag and already contains
+// the last write made by the same client, which is carried in a cookie between requests.
+public class ReplicaLagTracker {
+
+	public static final String WRITE_SEQUENCE_COOKIE = "store-write-seq";
+	private static final String WRITE_SEQUENCE_ATTRIBUTE = ReplicaLagTracker.class.getName() + ".writeSequence";
+	private static final String CAUGHT_UP_ATTRIBUTE = ReplicaLagTracker.class.getName() + ".caughtUp";
+	// the same requirement for work running outside any request, e.g. background cache refreshes
+	private static final ThreadLocal<Boolean> CAUGHT_UP_REQUIRED = new ThreadLocal<>();
+
+	private final Clock clock;
+	private final Duration maxLag;
+
+	private final AtomicLong writeSequence = new AtomicLong();
+	private final AtomicReference<Instant> oldestUnappliedWriteAt = new AtomicReference<>();
+	private final AtomicInteger replicaConnectionsInUse = new AtomicInteger();
+	private volatile long appliedSequence = -1;
+	private volatile boolean syncing;
+
+	public ReplicaLagTracker(Clock clock, Duration maxLag) {
+		this.clock = clock;
+		this.maxLag = maxLag;
+	}
+
+	public long recordWrite() {
+		oldestUnappliedWriteAt.compareAndSet(null, clock.instant());
+		long sequence = writeSequence.incrementAndGet();
+		rememberClientWrite(sequence);
+		return sequence;
+	}
+
+	public long currentWriteSequence() {
+		return writeSequence.get();
+	}
+
+	public long getAppliedSequence() {
+		return appliedSequence;
+	}
+
+	public Duration currentLag() {
+		Instant oldest = oldestUnappliedWriteAt.get();
+		return oldest == null ? Duration.ZERO : Duration.between(oldest, clock.instant());
+	}
+
+	// snapshotStartedAt is a safe upper bound for writes that landed while the snapshot was taken
+	public void markApplied(long sequence, Instant snapshotStartedAt) {
+		appliedSequence = sequence;
+		oldestUnappliedWriteAt.set(null);
+		if (writeSequence.get() > sequence) {
+			oldestUnappliedWriteAt.set(snapshotStartedAt);
+		}
+	}
+
+	public boolean tryAcquireReplica() {
+		if (appliedSequence < 0 || appliedSequence < requiredSequence() || currentLag().compareTo(maxLag) > 0) {
+			return false;
+		}
+		replicaConnectionsInUse.incrementAndGet();
+		if (syncing) {
+			replicaConnectionsInUse.decrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	public void releaseReplica() {
+		replicaConnectionsInUse.decrementAndGet();
+	}
+
+	// new readers go to the primary while the replica is being rebuilt, running ones are allowed to finish
+	public void beginSync() throws InterruptedException {
+		syncing = true;
+		while (replicaConnectionsInUse.get() > 0) {
+			Thread.sleep(1);
+		}
+	}
+
+	public void endSync() {
+		syncing = false;
+	}
+
+	// for results that outlive the request, e.g. cached pages: the replica must hold every write committed so far
+	public static void requireCaughtUpReplica() {
+		if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+			attributes.setAttribute(CAUGHT_UP_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+		}
+	}
+
+	public static <T> T callWithCaughtUpReplica(Supplier<T> call) {
+		Boolean previous = CAUGHT_UP_REQUIRED.get();
+		CAUGHT_UP_REQUIRED.set(Boolean.TRUE);
+		try {
+			return call.get();
+		} finally {
+			if (previous == null) {
+				CAUGHT_UP_REQUIRED.remove();
+			}
+		}
+	}
+
+	private long requiredSequence() {
+		if (CAUGHT_UP_REQUIRED.get() != null) {
+			return writeSequence.get();
+		}
+		HttpServletRequest request = currentRequest();
+		if (request == null) {
+			return 0;
+		}
+		if (request.getAttribute(CAUGHT_UP_ATTRIBUTE) != null) {
+			return writeSequence.get();
+		}
+		if (request.getAttribute(WRITE_SEQUENCE_ATTRIBUTE) instanceof Long sequence) {
+			return sequence;
+		}
+		if (request.getCookies() != null) {
+			for (Cookie cookie : request.getCookies()) {
+				if (WRITE_SEQUENCE_COOKIE.equals(cookie.getName())) {
+					// a cookie from before a restart must not pin the client to the primary forever
+					return Math.min(parseSequence(cookie.getValue()), writeSequence.get());
+				}
+			}
+		}
+		return 0;
+	}
+
+	private void rememberClientWrite(long sequence) {
+		if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+			return;
+		}
+		attributes.setAttribute(WRITE_SEQUENCE_ATTRIBUTE, sequence, RequestAttributes.SCOPE_REQUEST);
+		HttpServletResponse response = attributes.getResponse();
+		// commits happen in the service layer, before the controller result is written
+		if (response != null && !response.isCommitted()) {
+			Cookie cookie = new Cookie(WRITE_SEQUENCE_COOKIE, Long.toString(sequence));
+			cookie.setPath("/");
+			cookie.setHttpOnly(true);
+			response.addCookie(cookie);
+		}
+	}
+
+	private static HttpServletRequest currentRequest() {
+		return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+				? attributes.getRequest()
+				: null;
+	}
+
+	private static long parseSequence(String value) {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package org.example.storedemo.service.replica;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Read-only side of the routing: hands out replica connections while the replica is fresh enough for the caller,
+// otherwise falls back to the primary.
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+
+	private final DataSource primary;
+	private final ReplicaLagTracker replicaLagTracker;
+	private final MeterRegistry meterRegistry;
+
+	public ReplicaRoutingDataSource(DataSource replica, DataSource primary, ReplicaLagTracker replicaLagTracker,
+									MeterRegistry meterRegistry) {
+		super(replica);
+		this.primary = primary;
+		this.replicaLagTracker = replicaLagTracker;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (!replicaLagTracker.tryAcquireReplica()) {
+			meterRegistry.counter("store.datasource.reads", "target", "primary").increment();
+			return primary.getConnection();
+		}
+		try {
+			Connection connection = super.getConnection();
+			meterRegistry.counter("store.datasource.reads", "target", "replica").increment();
+			return releasingOnClose(connection);
+		} catch (SQLException | RuntimeException e) {
+			replicaLagTracker.releaseReplica();
+			throw e;
+		}
+	}
+
+	private Connection releasingOnClose(Connection connection) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+				(proxy, method, args) -> {
+					if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+						replicaLagTracker.releaseReplica();
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+}
@@ -0,0 +1,77 @@
+package org.example.storedemo.service.replica;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.storedemo.service.workload.Workload;
+import org.example.storedemo.service.workload.WorkloadType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+
+// Stand-in for streaming replication between two H2 instances: periodically copies a consistent SCRIPT snapshot
+// of the primary into the replica. Lag is therefore bounded by the sync interval plus the copy time.
+@Slf4j
+public class ReplicaSynchronizer {
+
+	private final JdbcTemplate primary;
+	private final JdbcTemplate replica;
+	private final ReplicaLagTracker replicaLagTracker;
+	private final MeterRegistry meterRegistry;
+	private final Clock clock;
+
+	public ReplicaSynchronizer(DataSource primary, DataSource replica, ReplicaLagTracker replicaLagTracker,
+							   MeterRegistry meterRegistry, Clock clock) {
+		this.primary = new JdbcTemplate(primary);
+		this.replica = new JdbcTemplate(replica);
+		this.replicaLagTracker = replicaLagTracker;
+		this.meterRegistry = meterRegistry;
+		this.clock = clock;
+	}
+
+	@Workload(WorkloadType.BACKGROUND)
+	@Scheduled(
+			initialDelayString = "${app.datasource.replica.sync-interval-ms:1000}",
+			fixedDelayString = "${app.datasource.replica.sync-interval-ms:1000}"
+	)
+	public void scheduledSync() {
+		try {
+			sync();
+		} catch (Exception ex) {
+			log.error("Replica sync failed, reads keep falling back to the primary", ex);
+		}
+	}
+
+	@Workload(WorkloadType.BACKGROUND)
+	public synchronized void sync() throws IOException, InterruptedException {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		Path snapshot = Files.createTempFile("store-replica-", ".sql");
+		try {
+			// read before the snapshot starts, so the replica never claims writes it may not contain
+			long sequence = replicaLagTracker.currentWriteSequence();
+			Instant startedAt = clock.instant();
+			primary.execute("SCRIPT DROP TO '" + sqlLiteral(snapshot) + "'");
+
+			replicaLagTracker.beginSync();
+			try {
+				replica.execute("RUNSCRIPT FROM '" + sqlLiteral(snapshot) + "'");
+				replicaLagTracker.markApplied(sequence, startedAt);
+			} finally {
+				replicaLagTracker.endSync();
+			}
+		} finally {
+			Files.deleteIfExists(snapshot);
+			sample.stop(meterRegistry.timer("store.datasource.replica_sync"));
+		}
+	}
+
+	private static String sqlLiteral(Path file) {
+		return file.toAbsolutePath().toString().replace("'", "''");
+	}
+}
@@ -0,0 +1,113 @@
+package org.example.storedemo.service.replica;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Primary side of the routing: a read-write transaction that modified rows advances the write sequence on commit.
+public class WriteTrackingDataSource extends DelegatingDataSource {
+
+	private static final String MODIFIED_KEY = WriteTrackingDataSource.class.getName() + ".modified";
+
+	private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+	private final ReplicaLagTracker replicaLagTracker;
+
+	public WriteTrackingDataSource(DataSource primary, ReplicaLagTracker replicaLagTracker) {
+		super(primary);
+		this.replicaLagTracker = replicaLagTracker;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return tracking(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return tracking(super.getConnection(username, password));
+	}
+
+	private Connection tracking(Connection connection) {
+		AtomicBoolean modified = modifiedFlag();
+		if (modified == null) {
+			return connection;
+		}
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+				(proxy, method, args) -> {
+					Object result = invoke(connection, method, args);
+					if (STATEMENT_FACTORIES.contains(method.getName()) && result instanceof Statement statement) {
+						return trackingStatement(statement, method.getReturnType(), modified);
+					}
+					return result;
+				});
+	}
+
+	private static Object trackingStatement(Statement statement, Class<?> type, AtomicBoolean modified) {
+		return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type},
+				(proxy, method, args) -> {
+					Object result = invoke(statement, method, args);
+					if (modifiesRows(method.getName(), result)) {
+						modified.set(true);
+					}
+					return result;
+				});
+	}
+
+	// execute() returning false may be an update count of zero or DDL; both are rare enough to count as a write
+	private static boolean modifiesRows(String method, Object result) {
+		return switch (method) {
+			case "executeUpdate", "executeLargeUpdate" -> ((Number) result).longValue() != 0;
+			case "executeBatch" -> Arrays.stream((int[]) result).anyMatch(count -> count != 0);
+			case "executeLargeBatch" -> Arrays.stream((long[]) result).anyMatch(count -> count != 0);
+			case "execute" -> Boolean.FALSE.equals(result);
+			default -> false;
+		};
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private AtomicBoolean modifiedFlag() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()
+				|| TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return null;
+		}
+		if (TransactionSynchronizationManager.getResource(MODIFIED_KEY) instanceof AtomicBoolean modified) {
+			return modified;
+		}
+
+		AtomicBoolean modified = new AtomicBoolean();
+		TransactionSynchronizationManager.bindResource(MODIFIED_KEY, modified);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				if (modified.get()) {
+					replicaLagTracker.recordWrite();
+				}
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(MODIFIED_KEY);
+			}
+		});
+		return modified;
+	}
+}
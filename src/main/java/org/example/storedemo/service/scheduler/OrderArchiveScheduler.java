@@ -0,0 +1,112 @@
+package org.example.storedemo.service.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.storedemo.repository.OrderRepository;
+import org.example.storedemo.service.FakeRedisService;
+import org.example.storedemo.service.workload.Workload;
+import org.example.storedemo.service.workload.WorkloadType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchiveScheduler {
+
+	private static final String LOCK_KEY = "archiveTerminalOrders";
+	private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+	private final OrderRepository orderRepository;
+	private final OrderSchedulerArchiveService orderSchedulerArchiveService;
+	private final FakeRedisService fakeRedisService;
+	private final Clock clock;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${app.archive.retention-days:30}")
+	private int retentionDays;
+	@Value("${app.archive.chunk-size:200}")
+	private int chunkSize;
+	@Value("${app.archive.pause-between-chunks-ms:100}")
+	private long pauseBetweenChunksMs;
+
+	@Workload(WorkloadType.BACKGROUND)
+	@Scheduled(
+			initialDelayString = "${app.archive.initial-delay-ms:300000}",
+			fixedDelayString = "${app.archive.fixed-delay-ms:3600000}"
+	)
+	public void archiveTerminalOrders() {
+		log.info("Starting to archive terminal orders");
+		if (fakeRedisService.tryLock(LOCK_KEY)) {
+			Timer.Sample sweep = Timer.start(meterRegistry);
+			try {
+				Instant archiveStartTime = clock.instant();
+				int totalOrders = archiveOrdersCreatedBefore(LocalDateTime.now(clock).minusDays(retentionDays));
+				meterRegistry.counter("store.scheduler.orders_archived").increment(totalOrders);
+				log.info(
+						"Finished. Orders archived: {}. Processing took: {} ms",
+						totalOrders, Duration.between(archiveStartTime, clock.instant()).toMillis()
+				);
+			} catch (Exception ex) {
+				log.error("An error occurred while archiving orders", ex);
+			} finally {
+				sweep.stop(meterRegistry.timer("store.scheduler.sweep", "task", "archive"));
+				fakeRedisService.unlock(LOCK_KEY);
+			}
+		} else {
+			log.info("Another instance is already running this task");
+		}
+	}
+
+	@Workload(WorkloadType.BACKGROUND)
+	public int archiveOrdersCreatedBefore(LocalDateTime cutoffTime) {
+		UUID lastId = FIRST_ID;
+		int totalOrders = 0;
+		List<UUID> chunk;
+
+		do {
+			chunk = orderRepository.findArchivableOrderIds(
+					OrderSchedulerArchiveService.ARCHIVABLE_STATUSES,
+					cutoffTime,
+					lastId,
+					PageRequest.of(0, chunkSize)
+			);
+			if (chunk.isEmpty()) {
+				break;
+			}
+
+			totalOrders += orderSchedulerArchiveService.archiveOrders(chunk);
+			lastId = chunk.get(chunk.size() - 1);
+			log.debug("Archived chunk of {} orders, last id: {}", chunk.size(), lastId);
+
+		} while (chunk.size() == chunkSize && pauseBetweenChunks());
+
+		return totalOrders;
+	}
+
+	private boolean pauseBetweenChunks() {
+		if (pauseBetweenChunksMs <= 0) {
+			return true;
+		}
+		try {
+			Thread.sleep(pauseBetweenChunksMs);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("Order archiving interrupted, remaining orders will be archived on the next run");
+			return false;
+		}
+	}
+
+}
@@ -1,11 +1,15 @@
 package org.example.storedemo.service.scheduler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.storedemo.entity.OrderEntity;
 import org.example.storedemo.entity.OrderStatus;
 import org.example.storedemo.repository.OrderRepository;
 import org.example.storedemo.service.FakeRedisService;
+import org.example.storedemo.service.workload.Workload;
+import org.example.storedemo.service.workload.WorkloadType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -16,6 +20,7 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
@@ -26,11 +31,17 @@ public class OrderScheduler {
 	private final Clock clock;
 	private final OrderSchedulerExpireService orderSchedulerExpireService;
 	private final FakeRedisService fakeRedisService;
+	private final MeterRegistry meterRegistry;
 
+	// expired orders waiting at the start of the last sweep, exposed as a gauge by MetricsConfig
+	private final AtomicLong expiredBacklog = new AtomicLong();
+
+	@Workload(WorkloadType.BACKGROUND)
 	@Scheduled(initialDelay = 60_000, fixedDelay = 60_000)
 	public void invalidateExpiredOrders() {
 		log.info("Starting to expire out-of-date orders");
 		if (fakeRedisService.tryLock("invalidateExpiredOrders")) {
+			Timer.Sample sweep = Timer.start(meterRegistry);
 			try {
 				Instant cleanupStartTime = clock.instant();
 
@@ -48,6 +59,10 @@ public class OrderScheduler {
 							PageRequest.of(page, PAGE_SIZE, Sort.by("id"))
 					);
 
+					if (page == 0) {
+						expiredBacklog.set(resultPage.getTotalElements());
+					}
+
 					OrderSchedulerExpireService.OrderProcessingResult result =
 							orderSchedulerExpireService.processExpiredOrders(resultPage.getContent());
 					totalOrders += result.expiredOrders();
@@ -57,6 +72,7 @@ public class OrderScheduler {
 				} while (!resultPage.isLast());
 
 				Instant cleanupFinishTime = clock.instant();
+				meterRegistry.counter("store.scheduler.orders_expired").increment(totalOrders);
 				log.info(
 						"Finished. Orders expired: {}, products released: {}. Processing took: {} ms",
 						totalOrders, totalProducts, Duration.between(cleanupStartTime, cleanupFinishTime).toMillis()
@@ -64,6 +80,7 @@ public class OrderScheduler {
 			} catch (Exception ex) {
 				log.error("An error occurred while processing order invalidation", ex);
 			} finally {
+				sweep.stop(meterRegistry.timer("store.scheduler.sweep", "task", "expire"));
 				fakeRedisService.unlock("invalidateExpiredOrders");
 			}
 		} else {
@@ -71,4 +88,8 @@ public class OrderScheduler {
 		}
 	}
 
+	public long getExpiredBacklog() {
+		return expiredBacklog.get();
+	}
+
 }
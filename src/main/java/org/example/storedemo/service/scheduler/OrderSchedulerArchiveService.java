@@ -0,0 +1,99 @@
+package org.example.storedemo.service.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.example.storedemo.entity.ArchivedOrderEntity;
+import org.example.storedemo.entity.ArchivedOrderItemEntity;
+import org.example.storedemo.entity.OrderEntity;
+import org.example.storedemo.entity.OrderItemEntity;
+import org.example.storedemo.entity.OrderStatus;
+import org.example.storedemo.repository.ArchivedOrderRepository;
+import org.example.storedemo.repository.OrderItemRepository;
+import org.example.storedemo.repository.OrderRepository;
+import org.example.storedemo.service.StockMovement;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class OrderSchedulerArchiveService {
+
+	public static final Set<OrderStatus> ARCHIVABLE_STATUSES =
+			EnumSet.of(OrderStatus.PAID, OrderStatus.CANCELED, OrderStatus.EXPIRED);
+
+	private final OrderRepository orderRepository;
+	private final OrderItemRepository orderItemRepository;
+	private final ArchivedOrderRepository archivedOrderRepository;
+	private final Clock clock;
+
+	@Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+	public int archiveOrders(List<UUID> orderIds) {
+		LocalDateTime archivedAt = LocalDateTime.now(clock);
+		List<OrderEntity> orders = orderRepository.findAllWithItemsByIdIn(orderIds).stream()
+				.filter(order -> ARCHIVABLE_STATUSES.contains(order.getStatus()))
+				.toList();
+		if (orders.isEmpty()) {
+			return 0;
+		}
+
+		List<ArchivedOrderEntity> archivedOrders = orders.stream()
+				.map(order -> toArchivedOrder(order, archivedAt))
+				.toList();
+		archivedOrderRepository.saveAll(archivedOrders);
+		releaseActiveOrderCounters(orders);
+
+		List<UUID> archivedIds = orders.stream().map(OrderEntity::getId).toList();
+		orderItemRepository.deleteAllByOrderIdIn(archivedIds);
+		orderRepository.deleteAllByIdInBatch(archivedIds);
+		return archivedOrders.size();
+	}
+
+	private void releaseActiveOrderCounters(List<OrderEntity> orders) {
+		for (OrderEntity order : orders) {
+			if (order.getStatus() != OrderStatus.PAID) {
+				continue;
+			}
+			for (OrderItemEntity item : order.getItems()) {
+				StockMovement.ARCHIVE_SOLD.apply(item.getProductEntity(), item.getQuantity());
+			}
+		}
+	}
+
+	private ArchivedOrderEntity toArchivedOrder(OrderEntity order, LocalDateTime archivedAt) {
+		ArchivedOrderEntity archived = new ArchivedOrderEntity();
+		archived.setId(order.getId());
+		archived.setStatus(order.getStatus());
+		archived.setCreatedAt(order.getCreatedAt());
+		archived.setExpiresAt(order.getExpiresAt());
+		archived.setPaidAt(order.getPaidAt());
+		archived.setArchivedAt(archivedAt);
+
+		for (OrderItemEntity item : order.getItems()) {
+			archived.getItems().add(ArchivedOrderItemEntity.builder()
+					.id(item.getId())
+					.orderEntity(archived)
+					.productId(item.getProductEntity().getId())
+					.productName(item.getProductEntity().getName())
+					// the price the order was placed at, not the product's current one
+					.unitPrice(unitPrice(item))
+					.quantity(item.getQuantity())
+					.priceSnapshot(item.getPriceSnapshot())
+					.build());
+		}
+		return archived;
+	}
+
+	private static BigDecimal unitPrice(OrderItemEntity item) {
+		BigDecimal snapshot = item.getPriceSnapshot();
+		return snapshot.divide(BigDecimal.valueOf(item.getQuantity()), snapshot.scale(), RoundingMode.HALF_UP);
+	}
+}
@@ -7,6 +7,7 @@ import org.example.storedemo.entity.OrderStatus;
 import org.example.storedemo.entity.ProductEntity;
 import org.example.storedemo.repository.OrderRepository;
 import org.example.storedemo.repository.ProductRepository;
+import org.example.storedemo.service.StockMovement;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,7 +32,7 @@ public class OrderSchedulerExpireService {
 			order.setStatus(OrderStatus.EXPIRED);
 			for (OrderItemEntity item : order.getItems()) {
 				ProductEntity product = item.getProductEntity();
-				product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
+				StockMovement.RELEASE.apply(product, item.getQuantity());
 				updatedProducts.add(product);
 				releasedProducts += item.getQuantity();
 			}
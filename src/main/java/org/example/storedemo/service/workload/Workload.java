@@ -0,0 +1,17 @@
+package org.example.storedemo.service.workload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Picks the connection pool for everything the method does, including nested service calls. The outermost
+// annotated call wins, so a background sweep calling checkout code still stays on the background pool.
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+
+	WorkloadType value();
+}
@@ -0,0 +1,26 @@
+package org.example.storedemo.service.workload;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Runs outside the transaction interceptor, so the workload is already bound when the transaction takes its
+// connection.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadAspect {
+
+	@Around("@annotation(workload)")
+	public Object bindWorkload(ProceedingJoinPoint joinPoint, Workload workload) throws Throwable {
+		WorkloadType previous = WorkloadContext.enter(workload.value());
+		try {
+			return joinPoint.proceed();
+		} finally {
+			WorkloadContext.restore(previous);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package org.example.storedemo.service.workload;
+
+import java.util.function.Supplier;
+
+// Thread-bound workload of the current call, read by WorkloadRoutingDataSource when a connection is acquired.
+public final class WorkloadContext {
+
+	private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+	private WorkloadContext() {
+	}
+
+	public static WorkloadType current() {
+		return CURRENT.get();
+	}
+
+	// returns the previous workload, to be handed back to restore()
+	public static WorkloadType enter(WorkloadType workload) {
+		WorkloadType previous = CURRENT.get();
+		if (previous == null) {
+			CURRENT.set(workload);
+		}
+		return previous;
+	}
+
+	// carries the caller's workload over to a task that runs on another thread
+	public static <T> Supplier<T> propagate(Supplier<T> task) {
+		WorkloadType workload = current();
+		if (workload == null) {
+			return task;
+		}
+		return () -> {
+			WorkloadType previous = enter(workload);
+			try {
+				return task.get();
+			} finally {
+				restore(previous);
+			}
+		};
+	}
+
+	public static void restore(WorkloadType previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package org.example.storedemo.service.workload;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Hands out connections from the pool of the current workload; calls outside any @Workload method use the
+// default workload's pool.
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+	public WorkloadRoutingDataSource(Map<WorkloadType, DataSource> pools, WorkloadType defaultWorkload) {
+		setTargetDataSources(new HashMap<Object, Object>(pools));
+		setDefaultTargetDataSource(pools.get(defaultWorkload));
+		setLenientFallback(false);
+		initialize();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return WorkloadContext.current();
+	}
+}
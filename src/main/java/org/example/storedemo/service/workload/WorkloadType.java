@@ -0,0 +1,21 @@
+package org.example.storedemo.service.workload;
+
+import java.util.Locale;
+
+// Each type gets its own connection pool when app.datasource.workloads.enabled is set, see DataSourceConfig.
+public enum WorkloadType {
+	CHECKOUT,
+	READ,
+	ADMIN,
+	BACKGROUND;
+
+	// also the hikaricp "pool" tag, so acquire time can be told apart per workload
+	public String poolName() {
+		return "store-" + name().toLowerCase(Locale.ROOT);
+	}
+
+	// key under app.datasource.workloads.<key> holding the pool settings
+	public String propertyKey() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+}
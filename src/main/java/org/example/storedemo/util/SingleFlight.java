@@ -0,0 +1,93 @@
+package org.example.storedemo.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Merges concurrent calls for the same key into one: the first caller runs the loader on its own thread and
+// every caller arriving while it runs gets the same result or exception. Nothing is kept once the call ends,
+// so this is not a cache. Past maxKeys distinct keys in flight, callers just run the loader themselves.
+public final class SingleFlight<K, V> {
+
+	private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final int maxKeys;
+
+	private final LongAdder leaders = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder bypassed = new LongAdder();
+
+	public SingleFlight(int maxKeys) {
+		this.maxKeys = maxKeys;
+	}
+
+	public V execute(K key, Supplier<V> loader) {
+		if (inFlight.size() >= maxKeys) {
+			bypassed.increment();
+			return loader.get();
+		}
+		CompletableFuture<V> call = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+		if (existing != null) {
+			coalesced.increment();
+			return await(existing);
+		}
+
+		leaders.increment();
+		try {
+			V result = loader.get();
+			call.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, call);
+		}
+	}
+
+	// callers that run the loader themselves for reasons of their own still count towards the ratio
+	public V bypass(Supplier<V> loader) {
+		bypassed.increment();
+		return loader.get();
+	}
+
+	private static <V> V await(CompletableFuture<V> call) {
+		try {
+			return call.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	public int inFlightKeys() {
+		return inFlight.size();
+	}
+
+	public long getLeaders() {
+		return leaders.sum();
+	}
+
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	public long getBypassed() {
+		return bypassed.sum();
+	}
+
+	// share of all calls that were answered by someone else's query
+	public double coalescingRatio() {
+		long coalescedCalls = coalesced.sum();
+		long total = coalescedCalls + leaders.sum() + bypassed.sum();
+		return total == 0 ? 0 : (double) coalescedCalls / total;
+	}
+}
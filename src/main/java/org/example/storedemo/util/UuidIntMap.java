@@ -0,0 +1,170 @@
+package org.example.storedemo.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Open-addressing UUID -> int map that keeps each key as two longs, so lookups and merges on the
+// order path neither box the quantity nor allocate entries. Not thread-safe; meant to be reused
+// as per-thread scratch space via clear().
+public final class UuidIntMap {
+
+	private long[] mostSigBits;
+	private long[] leastSigBits;
+	private int[] values;
+	private boolean[] used;
+	// slot of every key in insertion order, so iteration and clear() only touch occupied slots
+	private int[] slotsInOrder;
+	private int size;
+	private int mask;
+
+	public UuidIntMap(int expectedSize) {
+		allocate(tableSizeFor(expectedSize));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int capacity() {
+		return used.length;
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			used[slotsInOrder[i]] = false;
+		}
+		size = 0;
+	}
+
+	public boolean containsKey(UUID key) {
+		return findSlot(key.getMostSignificantBits(), key.getLeastSignificantBits()) >= 0;
+	}
+
+	public int get(UUID key, int defaultValue) {
+		int slot = findSlot(key.getMostSignificantBits(), key.getLeastSignificantBits());
+		return slot >= 0 ? values[slot] : defaultValue;
+	}
+
+	public void put(UUID key, int value) {
+		values[insertSlot(key.getMostSignificantBits(), key.getLeastSignificantBits())] = value;
+	}
+
+	// adds delta to the current value (0 when absent) and returns the result, like Map.merge with Integer::sum
+	public int addTo(UUID key, int delta) {
+		int slot = insertSlot(key.getMostSignificantBits(), key.getLeastSignificantBits());
+		values[slot] += delta;
+		return values[slot];
+	}
+
+	public UUID keyAt(int index) {
+		int slot = slotAt(index);
+		return new UUID(mostSigBits[slot], leastSigBits[slot]);
+	}
+
+	public int valueAt(int index) {
+		return values[slotAt(index)];
+	}
+
+	public List<UUID> keys() {
+		List<UUID> keys = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			keys.add(keyAt(i));
+		}
+		return keys;
+	}
+
+	private int slotAt(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+		return slotsInOrder[index];
+	}
+
+	private int findSlot(long msb, long lsb) {
+		int slot = hash(msb, lsb) & mask;
+		while (used[slot]) {
+			if (mostSigBits[slot] == msb && leastSigBits[slot] == lsb) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private int insertSlot(long msb, long lsb) {
+		int slot = hash(msb, lsb) & mask;
+		while (used[slot]) {
+			if (mostSigBits[slot] == msb && leastSigBits[slot] == lsb) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		if ((size + 1) * 2 > used.length) {
+			grow();
+			return insertSlot(msb, lsb);
+		}
+
+		used[slot] = true;
+		mostSigBits[slot] = msb;
+		leastSigBits[slot] = lsb;
+		values[slot] = 0;
+		slotsInOrder[size++] = slot;
+		return slot;
+	}
+
+	private void grow() {
+		long[] oldMostSigBits = mostSigBits;
+		long[] oldLeastSigBits = leastSigBits;
+		int[] oldValues = values;
+		int[] oldSlotsInOrder = slotsInOrder;
+		int oldSize = size;
+
+		allocate(used.length * 2);
+		for (int i = 0; i < oldSize; i++) {
+			int oldSlot = oldSlotsInOrder[i];
+			int slot = insertSlot(oldMostSigBits[oldSlot], oldLeastSigBits[oldSlot]);
+			values[slot] = oldValues[oldSlot];
+		}
+	}
+
+	private void allocate(int capacity) {
+		mostSigBits = new long[capacity];
+		leastSigBits = new long[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		slotsInOrder = new int[capacity / 2];
+		size = 0;
+		mask = capacity - 1;
+	}
+
+	private static int tableSizeFor(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+		return Math.max(capacity, 8);
+	}
+
+	private static int hash(long msb, long lsb) {
+		long h = msb ^ lsb;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(keyAt(i)).append('=').append(valueAt(i));
+		}
+		return sb.append('}').toString();
+	}
+}
@@ -0,0 +1,23 @@
+package org.example.storedemo.util;
+
+// Marks the thread running synthetic warmup cycles, so they are kept out of the request latency and business metrics.
+public final class WarmupContext {
+
+	private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+	private WarmupContext() {
+	}
+
+	public static boolean isActive() {
+		return ACTIVE.get() != null;
+	}
+
+	public static void run(Runnable task) {
+		ACTIVE.set(Boolean.TRUE);
+		try {
+			task.run();
+		} finally {
+			ACTIVE.remove();
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package org.example.storedemo.util;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Draws ranks 0..size-1 where rank k is picked with probability proportional to 1 / (k + 1)^exponent.
+public final class ZipfSampler {
+
+	private final double[] cumulative;
+
+	public ZipfSampler(int size, double exponent) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Size must be positive: " + size);
+		}
+		if (exponent <= 0) {
+			throw new IllegalArgumentException("Exponent must be positive: " + exponent);
+		}
+		cumulative = new double[size];
+		double total = 0;
+		for (int k = 0; k < size; k++) {
+			total += 1.0 / Math.pow(k + 1, exponent);
+			cumulative[k] = total;
+		}
+		for (int k = 0; k < size; k++) {
+			cumulative[k] /= total;
+		}
+		// guard against rounding leaving the last bucket just below 1.0
+		cumulative[size - 1] = 1.0;
+	}
+
+	public int sample(RandomGenerator random) {
+		int index = Arrays.binarySearch(cumulative, random.nextDouble());
+		return index >= 0 ? index : -index - 1;
+	}
+
+	public int size() {
+		return cumulative.length;
+	}
+}
@@ -0,0 +1,92 @@
+package org.example.storedemo.component;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"app.bench-data.products=200",
+		"app.bench-data.orders=600",
+		"app.bench-data.batch-size=64",
+		"app.bench-data.threads=4",
+		"app.bench-data.snapshot="
+})
+@ActiveProfiles({"store", "bench-data"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class BenchDataGeneratorTest {
+
+	private static final String COUNTER_MISMATCHES_SQL = """
+			SELECT COUNT(*) FROM products p
+			WHERE p.%s <> COALESCE((
+				SELECT %s FROM order_items i JOIN orders o ON o.id = i.order_id
+				WHERE i.product_id = p.id AND o.status IN (%s)
+			), 0)
+			""";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private BenchDataGenerator benchDataGenerator;
+
+	@Autowired
+	private Clock clock;
+
+	@Test
+	@DisplayName("Should seed the configured volume with product counters matching the generated orders")
+	void testCountersMatchOrders() {
+		assertThat(count("SELECT COUNT(*) FROM products")).isEqualTo(200);
+		assertThat(count("SELECT COUNT(*) FROM orders")).isEqualTo(600);
+		assertThat(count("SELECT COUNT(DISTINCT status) FROM orders")).isEqualTo(4);
+
+		assertThat(count(COUNTER_MISMATCHES_SQL.formatted("reserved_quantity", "SUM(i.quantity)", "'CREATED'"))).isZero();
+		assertThat(count(COUNTER_MISMATCHES_SQL.formatted("sold_quantity", "SUM(i.quantity)", "'PAID'"))).isZero();
+		assertThat(count(COUNTER_MISMATCHES_SQL.formatted("active_order_count", "COUNT(*)", "'CREATED', 'PAID'"))).isZero();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE status = 'CREATED' AND expires_at <= ?",
+				Long.class, LocalDateTime.now(clock))).isZero();
+		// line totals, as OrderService writes them
+		assertThat(count("SELECT COUNT(*) FROM order_items i JOIN products p ON p.id = i.product_id "
+				+ "WHERE i.price_snapshot <> p.price * i.quantity")).isZero();
+	}
+
+	@Test
+	@DisplayName("Should skew order items towards a few popular products")
+	void testZipfianPopularity() {
+		List<Long> itemsPerProduct = jdbcTemplate.queryForList(
+				"SELECT COUNT(*) FROM order_items GROUP BY product_id ORDER BY COUNT(*) DESC", Long.class);
+		long total = itemsPerProduct.stream().mapToLong(Long::longValue).sum();
+		long topTenPercent = itemsPerProduct.stream().limit(20).mapToLong(Long::longValue).sum();
+
+		assertThat(topTenPercent).isGreaterThan(total / 2);
+	}
+
+	@Test
+	@DisplayName("Should restore the seeded dataset from a snapshot")
+	void testSnapshotRoundTrip(@TempDir Path dir) {
+		Path snapshot = dir.resolve("store.sql.gz");
+		long items = count("SELECT COUNT(*) FROM order_items");
+		benchDataGenerator.writeSnapshot(snapshot);
+
+		jdbcTemplate.update("DELETE FROM order_items");
+		benchDataGenerator.restoreSnapshot(snapshot);
+
+		assertThat(count("SELECT COUNT(*) FROM order_items")).isEqualTo(items);
+		assertThat(count("SELECT COUNT(*) FROM orders")).isEqualTo(600);
+	}
+
+	private long count(String sql) {
+		return jdbcTemplate.queryForObject(sql, Long.class);
+	}
+}
@@ -0,0 +1,43 @@
+package org.example.storedemo.component;
+
+import org.example.storedemo.repository.OrderRepository;
+import org.example.storedemo.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.startup.async-seeding=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class DataInitializerTest {
+
+	@Autowired
+	private SeedingHealthIndicator seedingHealthIndicator;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Test
+	@DisplayName("Should seed in the background and report readiness once done")
+	void testAsyncSeeding() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 30_000;
+		while (!seedingHealthIndicator.isReady() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+
+		assertThat(seedingHealthIndicator.isReady()).isTrue();
+		assertThat(seedingHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+		assertThat(seedingHealthIndicator.health().getDetails()).containsKey("tookMs");
+		assertThat(productRepository.findAllByNameIn(List.of("Milk", "Bread"))).hasSize(2);
+		assertThat(orderRepository.count()).isGreaterThanOrEqualTo(3);
+	}
+}
@@ -0,0 +1,59 @@
+package org.example.storedemo.component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.storedemo.repository.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"app.warmup.enabled=true",
+		"app.warmup.max-iterations=40",
+		"app.warmup.max-duration-ms=30000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class WarmupRunnerTest {
+
+	@Autowired
+	private WarmupHealthIndicator warmupHealthIndicator;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Should run the bounded warmup before readiness and leave no data behind")
+	void testWarmupRollsBack() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 30_000;
+		while (!warmupHealthIndicator.isReady() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+
+		assertThat(warmupHealthIndicator.isReady()).isTrue();
+		assertThat(warmupHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+		WarmupHealthIndicator.WarmupResult result = warmupHealthIndicator.getResult();
+		assertThat(result.iterations()).isEqualTo(40);
+		assertThat(result.cycleP99FirstMs()).isPositive();
+		assertThat(result.cycleP99LastMs()).isPositive();
+
+		// 40 synthetic cycles, none of them in the request latency timers; only DataInitializer's three orders are
+		assertThat(meterRegistry.find("store.orders.pay").timers()).allSatisfy(timer -> assertThat(timer.count()).isZero());
+		assertThat(meterRegistry.find("store.orders.cancel").timers()).allSatisfy(timer -> assertThat(timer.count()).isZero());
+		assertThat(meterRegistry.find("store.orders.create").timers()).allSatisfy(timer -> assertThat(timer.count()).isLessThanOrEqualTo(3));
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE name LIKE 'Warmup %'", Long.class)).isZero();
+		// only the three orders DataInitializer creates
+		assertThat(orderRepository.count()).isEqualTo(3);
+	}
+}
@@ -4,10 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.storedemo.config.SecurityConfig;
 import org.example.storedemo.dto.ProductDto;
 import org.example.storedemo.dto.request.ProductRequest;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.dto.response.OrderSummaryDto;
 import org.example.storedemo.dto.response.ProductCreateResponse;
+import org.example.storedemo.dto.response.ProductCreationError;
+import org.example.storedemo.dto.response.ProductImportResponse;
 import org.example.storedemo.entity.OrderStatus;
 import org.example.storedemo.service.OrderService;
+import org.example.storedemo.service.ProductImportService;
 import org.example.storedemo.service.ProductService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +29,7 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -41,6 +46,8 @@ class AdminControllerTest {
 	private ProductService productService;
 	@MockitoBean
 	private OrderService orderService;
+	@MockitoBean
+	private ProductImportService productImportService;
 
 	private static final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -101,7 +108,7 @@ class AdminControllerTest {
 		OrderSummaryDto order = new OrderSummaryDto(UUID.randomUUID(), OrderStatus.CREATED, null, null, null, null);
 		Page<OrderSummaryDto> page = new PageImpl<>(List.of(order), PageRequest.of(0, 25), 1);
 
-		when(orderService.getAllOrders(PageRequest.of(0, 8, Sort.by("id")))).thenReturn(page);
+		when(orderService.getAllOrders(PageRequest.of(0, 8, Sort.by("id")), SparseFieldset.ALL, SparseFieldset.ALL)).thenReturn(page);
 
 		mockMvc.perform(get("/admin/orders"))
 				.andExpect(status().isOk())
@@ -115,4 +122,30 @@ class AdminControllerTest {
 				.andExpect(status().isUnauthorized());
 	}
 
+	@Test
+	@WithMockUser(roles = {"ADMIN"})
+	@DisplayName("POST /admin/products/import should stream CSV to import service")
+	void importProducts_withAuth_shouldSucceed() throws Exception {
+		ProductImportResponse response = new ProductImportResponse(UUID.randomUUID(), 2, 1, 1,
+				List.of(new ProductCreationError("Apple", "Line 2: Product with this name already exists")));
+
+		when(productImportService.importProducts(any())).thenReturn(response);
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/admin/products/import")
+						.contentType("text/csv")
+						.content("Pear,1.10,10\nApple,1.99,100\n"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.attributes.importedCount").value(1))
+				.andExpect(jsonPath("$.data.attributes.errorProducts[0].productName").value("Apple"));
+	}
+
+	@Test
+	@DisplayName("POST /admin/products/import should be unauthorized without auth")
+	void importProducts_withoutAuth_shouldFail() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/admin/products/import")
+						.contentType("text/csv")
+						.content("Pear,1.10,10\n"))
+				.andExpect(status().isUnauthorized());
+	}
+
 }
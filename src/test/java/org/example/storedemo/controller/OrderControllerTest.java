@@ -4,14 +4,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.storedemo.config.SecurityConfig;
 import org.example.storedemo.dto.OrderSummaryItemDto;
 import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.dto.response.OrderSummaryDto;
+import org.example.storedemo.entity.OrderEntity;
 import org.example.storedemo.entity.OrderStatus;
+import org.example.storedemo.mapper.OrderMapper;
 import org.example.storedemo.service.OrderService;
+import org.example.storedemo.service.admission.AdaptiveConcurrencyLimiter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -19,12 +25,18 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.math.BigDecimal;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,6 +52,9 @@ class OrderControllerTest {
 	@MockitoBean
 	private OrderService orderService;
 
+	@Autowired
+	private AdaptiveConcurrencyLimiter checkoutLimiter;
+
 	private static final ObjectMapper objectMapper = new ObjectMapper();
 
 	private final UUID orderId = UUID.randomUUID();
@@ -61,12 +76,35 @@ class OrderControllerTest {
 	@Test
 	@DisplayName("GET /orders/{id} should return order summary")
 	void getOrderSummary_shouldReturnData() throws Exception {
-		when(orderService.getOrderSummary(orderId)).thenReturn(sampleOrder());
+		when(orderService.getOrderSummary(orderId, SparseFieldset.ALL, SparseFieldset.ALL)).thenReturn(sampleOrder());
 
 		mockMvc.perform(get("/orders/{id}", orderId))
 				.andExpect(status().isOk())
 				.andExpect(jsonPath("$.data.attributes.products[0].totalPrice").value("3.98"))
-				.andExpect(jsonPath("$.data.attributes.status").value("CREATED"));
+				.andExpect(jsonPath("$.data.attributes.status").value("CREATED"))
+				.andExpect(jsonPath("$.data.attributes.errorMessage").doesNotExist());
+	}
+
+	@Test
+	@DisplayName("GET /orders/{id} should write only the requested attributes, including requested nulls")
+	void getOrderSummary_shouldApplySparseFieldset() throws Exception {
+		OrderEntity order = new OrderEntity();
+		order.setId(orderId);
+		order.setStatus(OrderStatus.CREATED);
+		order.setCreatedAt(LocalDateTime.now(clock));
+		order.setExpiresAt(LocalDateTime.now(clock).plusMinutes(30));
+		OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+		SparseFieldset requested = SparseFieldset.parse("fields[orders]", "status,paidAt", OrderService.ORDER_FIELDS);
+		when(orderService.getOrderSummary(orderId, requested, SparseFieldset.ALL))
+				.thenReturn(orderMapper.toSummaryDto(order, requested, false));
+
+		mockMvc.perform(get("/orders/{id}", orderId).param("fields[orders]", "status,paidAt"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data.attributes.status").value("CREATED"))
+				.andExpect(jsonPath("$.data.attributes.paidAt").value(nullValue()))
+				.andExpect(jsonPath("$.data.attributes.createdAt").doesNotExist())
+				.andExpect(jsonPath("$.data.attributes.expiresAt").doesNotExist())
+				.andExpect(jsonPath("$.data.attributes.products").doesNotExist());
 	}
 
 	@Test
@@ -92,4 +130,29 @@ class OrderControllerTest {
 				.andExpect(status().isOk())
 				.andExpect(jsonPath("$.data.attributes.status").value("CREATED"));
 	}
+
+	@Test
+	@DisplayName("POST /orders should be shed with 503 once the limiter is full while cancels still get in")
+	void createOrder_shouldBeShedWhenOverloaded() throws Exception {
+		when(orderService.cancelOrder(orderId)).thenReturn(sampleOrder());
+		int held = 0;
+		try {
+			while (checkoutLimiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.NORMAL)) {
+				held++;
+			}
+
+			mockMvc.perform(MockMvcRequestBuilders.post("/orders")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(objectMapper.writeValueAsString(List.of(new OrderCreateItemDto(UUID.randomUUID(), 1)))))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+			mockMvc.perform(MockMvcRequestBuilders.delete("/orders/{id}", orderId))
+					.andExpect(status().isOk());
+			verify(orderService, never()).createOrder(anyList());
+		} finally {
+			for (int i = 0; i < held; i++) {
+				checkoutLimiter.release(Duration.ZERO, false);
+			}
+		}
+	}
 }
@@ -1,8 +1,14 @@
 package org.example.storedemo.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.example.storedemo.config.CborConfig;
 import org.example.storedemo.config.SecurityConfig;
 import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.request.SparseFieldset;
+import org.example.storedemo.service.CatalogVersionService;
+import org.example.storedemo.service.ProductListingCache;
 import org.example.storedemo.service.ProductService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,21 +16,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ProductController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, CborConfig.class, ProductListingCache.class, CatalogVersionService.class})
 class ProductControllerTest {
 
 	@Autowired
@@ -33,6 +50,9 @@ class ProductControllerTest {
 	@MockitoBean
 	private ProductService productService;
 
+	@Autowired
+	private CatalogVersionService catalogVersionService;
+
 	private static final ObjectMapper objectMapper = new ObjectMapper();
 
 	@Test
@@ -46,7 +66,7 @@ class ProductControllerTest {
 		Pageable pageable = PageRequest.of(0, 8, Sort.by("name").ascending());
 		Page<ProductDto> page = new PageImpl<>(products, pageable, products.size());
 
-		when(productService.getAllProducts(pageable)).thenReturn(page);
+		when(productService.getAllProducts(pageable, SparseFieldset.ALL)).thenReturn(page);
 
 		// when / then
 		mockMvc.perform(get("/products").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
@@ -59,4 +79,130 @@ class ProductControllerTest {
 				.andExpect(jsonPath("$.data[1].attributes.stockQuantity").value("50"));
 	}
 
+	@Test
+	@DisplayName("GET /products should answer 304 for a matching ETag and re-render after a catalog change")
+	void getAllProducts_shouldUseEtag() throws Exception {
+		// given
+		Pageable pageable = PageRequest.of(1, 8, Sort.by("name").ascending());
+		List<ProductDto> products = List.of(new ProductDto(UUID.randomUUID(), "Apple", new BigDecimal("1.00"), 100, null));
+		when(productService.getAllProducts(pageable, SparseFieldset.ALL)).thenReturn(new PageImpl<>(products, pageable, 9));
+
+		// when
+		MvcResult first = mockMvc.perform(get("/products").param("page", "1"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn();
+		String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+		// then
+		mockMvc.perform(get("/products").param("page", "1").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+		mockMvc.perform(get("/products").param("page", "1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+		verify(productService, times(1)).getAllProducts(pageable, SparseFieldset.ALL);
+
+		catalogVersionService.bumpAfterCommit();
+
+		MvcResult changed = mockMvc.perform(get("/products").param("page", "1").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn();
+		assertNotEquals(etag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+		verify(productService, times(2)).getAllProducts(pageable, SparseFieldset.ALL);
+	}
+
+	@Test
+	@DisplayName("GET /products should serve the pre-compressed page when gzip is accepted")
+	void getAllProducts_shouldServeGzip() throws Exception {
+		// given
+		Pageable pageable = PageRequest.of(2, 8, Sort.by("name").ascending());
+		List<ProductDto> products = List.of(new ProductDto(UUID.randomUUID(), "Apple", new BigDecimal("1.00"), 100, null));
+		when(productService.getAllProducts(pageable, SparseFieldset.ALL)).thenReturn(new PageImpl<>(products, pageable, 17));
+
+		// when
+		MvcResult result = mockMvc.perform(get("/products").param("page", "2").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn();
+
+		// then
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+			String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+			assertTrue(json.contains("\"Apple\""));
+		}
+		assertTrue(result.getResponse().getHeader(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+
+		// each encoding has its own strong validator
+		String gzipEtag = result.getResponse().getHeader(HttpHeaders.ETAG);
+		String identityEtag = mockMvc.perform(get("/products").param("page", "2"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertTrue(gzipEtag.endsWith("-gz\""));
+		assertNotEquals(identityEtag, gzipEtag);
+		mockMvc.perform(get("/products").param("page", "2").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, gzipEtag));
+		mockMvc.perform(get("/products").param("page", "2").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, identityEtag));
+	}
+
+	@Test
+	@DisplayName("GET /products?ids= should return products in request order with not found entries")
+	void getProductsByIds_shouldReturnList() throws Exception {
+		// given
+		UUID known = UUID.randomUUID();
+		UUID unknown = UUID.randomUUID();
+		when(productService.getProductsByIds(List.of(unknown, known))).thenReturn(List.of(
+				new ProductDto(unknown, null, null, null, null, "Product with id " + unknown + " not found"),
+				new ProductDto(known, "Apple", new BigDecimal("1.00"), 100, null)
+		));
+
+		// when / then
+		mockMvc.perform(get("/products").param("ids", unknown + "," + known))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.data[0].attributes.errorMessage").value("Product with id " + unknown + " not found"))
+				.andExpect(jsonPath("$.data[1].attributes.name").value("Apple"));
+	}
+
+	@Test
+	@DisplayName("GET /products should encode the listing as CBOR when requested")
+	void getAllProducts_shouldServeCbor() throws Exception {
+		// given
+		Pageable pageable = PageRequest.of(3, 8, Sort.by("name").ascending());
+		List<ProductDto> products = List.of(new ProductDto(UUID.randomUUID(), "Apple", new BigDecimal("1.00"), 100, null));
+		when(productService.getAllProducts(pageable, SparseFieldset.ALL)).thenReturn(new PageImpl<>(products, pageable, 25));
+
+		// when
+		MvcResult result = mockMvc.perform(get("/products").param("page", "3").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+				.andReturn();
+
+		// then
+		JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+		assertEquals("Apple", body.at("/data/0/attributes/name").asText());
+	}
+
+	@Test
+	@DisplayName("GET /products should pick the format by the q-values of the Accept header")
+	void getAllProducts_shouldHonourQualityValues() throws Exception {
+		// given
+		Pageable pageable = PageRequest.of(4, 8, Sort.by("name").ascending());
+		List<ProductDto> products = List.of(new ProductDto(UUID.randomUUID(), "Apple", new BigDecimal("1.00"), 100, null));
+		when(productService.getAllProducts(pageable, SparseFieldset.ALL)).thenReturn(new PageImpl<>(products, pageable, 25));
+
+		// when / then
+		mockMvc.perform(get("/products").param("page", "4").header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE));
+		mockMvc.perform(get("/products").param("page", "4").header(HttpHeaders.ACCEPT, "application/json;q=0, */*"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE));
+		mockMvc.perform(get("/products").param("page", "4").header(HttpHeaders.ACCEPT, "application/cbor;q=0.9, */*"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+	}
+
 }
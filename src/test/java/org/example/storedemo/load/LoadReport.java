@@ -0,0 +1,100 @@
+package org.example.storedemo.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-step latency recorders and status counts for the load run, written out as JSON and a small HTML page.
+class LoadReport {
+
+	private static final long HIGHEST_TRACKABLE_NANOS = 60_000_000_000L;
+
+	private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+	private final Map<String, Map<String, LongAdder>> outcomes = new ConcurrentHashMap<>();
+
+	void record(String step, long latencyNanos, String outcome) {
+		recorders.computeIfAbsent(step, k -> new Recorder(HIGHEST_TRACKABLE_NANOS, 3))
+				.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+		outcomes.computeIfAbsent(step, k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(outcome, k -> new LongAdder())
+				.increment();
+	}
+
+	List<StepResult> results(double elapsedSeconds) {
+		List<StepResult> results = new ArrayList<>();
+		recorders.keySet().stream().sorted().forEach(step -> {
+			Histogram histogram = recorders.get(step).getIntervalHistogram();
+			Map<String, Long> counts = new LinkedHashMap<>();
+			outcomes.getOrDefault(step, Map.of()).forEach((outcome, adder) -> counts.put(outcome, adder.sum()));
+			results.add(new StepResult(
+					step,
+					histogram.getTotalCount(),
+					histogram.getTotalCount() / elapsedSeconds,
+					millis(histogram.getValueAtPercentile(50)),
+					millis(histogram.getValueAtPercentile(90)),
+					millis(histogram.getValueAtPercentile(99)),
+					millis(histogram.getValueAtPercentile(99.9)),
+					millis(histogram.getMaxValue()),
+					counts
+			));
+		});
+		return results;
+	}
+
+	void write(Path directory, RunSettings settings, List<StepResult> results) throws IOException {
+		Files.createDirectories(directory);
+		ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+		objectMapper.writeValue(directory.resolve("load-report.json").toFile(), Map.of("settings", settings, "steps", results));
+		Files.writeString(directory.resolve("load-report.html"), html(settings, results));
+	}
+
+	private static String html(RunSettings settings, List<StepResult> results) {
+		StringBuilder sb = new StringBuilder()
+				.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Store load report</title>")
+				.append("<style>body{font-family:sans-serif}td,th{padding:4px 10px;text-align:right}th:first-child,td:first-child{text-align:left}</style>")
+				.append("</head><body><h1>Store load report</h1>")
+				.append("<p>Open model: ").append(settings.arrivalsPerSecond()).append(" arrivals/s for ")
+				.append(settings.durationSeconds()).append(" s. Latency is measured from the scheduled arrival time, ")
+				.append("so queueing behind a slow server is included (coordinated omission corrected).</p>")
+				.append("<table><tr><th>step</th><th>count</th><th>per s</th><th>p50 ms</th><th>p90 ms</th>")
+				.append("<th>p99 ms</th><th>p99.9 ms</th><th>max ms</th><th>outcomes</th></tr>");
+		for (StepResult r : results) {
+			sb.append("<tr><td>").append(r.step()).append("</td><td>").append(r.count())
+					.append("</td><td>").append(String.format("%.1f", r.throughputPerSecond()))
+					.append("</td><td>").append(r.p50Millis()).append("</td><td>").append(r.p90Millis())
+					.append("</td><td>").append(r.p99Millis()).append("</td><td>").append(r.p999Millis())
+					.append("</td><td>").append(r.maxMillis()).append("</td><td>").append(r.outcomes())
+					.append("</td></tr>");
+		}
+		return sb.append("</table></body></html>").toString();
+	}
+
+	private static double millis(long nanos) {
+		return Math.round(nanos / 10_000.0) / 100.0;
+	}
+
+	record RunSettings(int arrivalsPerSecond, int durationSeconds, Map<String, Integer> scenarioWeights) {}
+
+	record StepResult(
+			String step,
+			long count,
+			double throughputPerSecond,
+			double p50Millis,
+			double p90Millis,
+			double p99Millis,
+			double p999Millis,
+			double maxMillis,
+			Map<String, Long> outcomes
+	) {}
+}
@@ -0,0 +1,283 @@
+package org.example.storedemo.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.repository.ProductRepository;
+import org.example.storedemo.service.scheduler.OrderScheduler;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Open-model HTTP load generator: arrivals are scheduled at a fixed rate whether or not earlier requests
+// finished, and latency is taken from the scheduled arrival time, so a stalled server shows up in the
+// percentiles instead of silently lowering the request rate.
+// Run with ./gradlew loadTest -Dload.rate=50 -Dload.duration=30; reports go to build/reports/load.
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StoreLoadTest {
+
+	private static final int RATE = Integer.getInteger("load.rate", 50);
+	private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 30);
+	private static final Path REPORT_DIR = Path.of(System.getProperty("load.reportDir", "build/reports/load"));
+	private static final int LOAD_PRODUCTS = 20;
+
+	@LocalServerPort
+	private int port;
+
+	@Value("${app.user.login}")
+	private String adminLogin;
+
+	@Value("${app.user.password}")
+	private String adminPassword;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderScheduler orderScheduler;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private Clock clock;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final LoadReport report = new LoadReport();
+	private final ExecutorService httpExecutor = Executors.newFixedThreadPool(32);
+	private final HttpClient httpClient = HttpClient.newBuilder()
+			.executor(httpExecutor)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	// orders created by the abandon scenario and not yet pushed past expiry by a sweep
+	private final Queue<UUID> abandonedOrderIds = new ConcurrentLinkedQueue<>();
+	private List<UUID> productIds;
+	private String adminAuthorization;
+
+	@AfterAll
+	void closeHttpClient() {
+		httpExecutor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("Drive browse, search, checkout and abandoned-order scenarios at an open arrival rate")
+	void runScenarios() throws Exception {
+		productIds = createProducts();
+		adminAuthorization = "Basic " + Base64.getEncoder()
+				.encodeToString((adminLogin + ":" + adminPassword).getBytes(StandardCharsets.UTF_8));
+
+		ScheduledExecutorService expirySweeps = Executors.newSingleThreadScheduledExecutor();
+		expirySweeps.scheduleWithFixedDelay(this::expireAbandonedOrders, 5, 5, TimeUnit.SECONDS);
+
+		Random random = new Random(17);
+		List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+		long intervalNanos = 1_000_000_000L / RATE;
+		long totalArrivals = (long) RATE * DURATION_SECONDS;
+		long start = System.nanoTime();
+		for (long i = 0; i < totalArrivals; i++) {
+			long scheduledAt = start + i * intervalNanos;
+			long wait = scheduledAt - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			inFlight.add(Scenario.pick(random).start(this, random, scheduledAt));
+		}
+		CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+		double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+		expirySweeps.shutdownNow();
+
+		List<LoadReport.StepResult> results = report.results(elapsedSeconds);
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		for (Scenario scenario : Scenario.values()) {
+			weights.put(scenario.name().toLowerCase(), scenario.weight);
+		}
+		report.write(REPORT_DIR, new LoadReport.RunSettings(RATE, DURATION_SECONDS, weights), results);
+		results.forEach(System.out::println);
+
+		assertThat(results).isNotEmpty();
+		assertThat(Files.exists(REPORT_DIR.resolve("load-report.json"))).isTrue();
+		assertThat(results).anySatisfy(result -> {
+			assertThat(result.step()).isEqualTo("browse");
+			assertThat(result.outcomes()).containsKey("2xx");
+		});
+	}
+
+	private enum Scenario {
+		BROWSE(50) {
+			@Override
+			CompletableFuture<Void> start(StoreLoadTest test, Random random, long scheduledAt) {
+				return test.send("browse", test.get("/products?page=" + random.nextInt(3) + "&size=8"), scheduledAt)
+						.thenAccept(response -> { });
+			}
+		},
+		SEARCH(15) {
+			@Override
+			CompletableFuture<Void> start(StoreLoadTest test, Random random, long scheduledAt) {
+				HttpRequest request = test.request("/admin/products/search?productName=Load")
+						.header("Authorization", test.adminAuthorization)
+						.GET()
+						.build();
+				return test.send("search", request, scheduledAt).thenAccept(response -> { });
+			}
+		},
+		CHECKOUT(25) {
+			@Override
+			CompletableFuture<Void> start(StoreLoadTest test, Random random, long scheduledAt) {
+				return test.send("create-order", test.createOrderRequest(random), scheduledAt)
+						.thenCompose(response -> {
+							String orderId = test.orderId(response);
+							if (orderId == null) {
+								return CompletableFuture.completedFuture(null);
+							}
+							HttpRequest pay = test.request("/payments/" + orderId)
+									.POST(HttpRequest.BodyPublishers.noBody())
+									.build();
+							return test.send("pay-order", pay, System.nanoTime()).thenAccept(payResponse -> { });
+						});
+			}
+		},
+		ABANDON(10) {
+			@Override
+			CompletableFuture<Void> start(StoreLoadTest test, Random random, long scheduledAt) {
+				return test.send("create-order-abandoned", test.createOrderRequest(random), scheduledAt)
+						.thenAccept(response -> {
+							String orderId = test.orderId(response);
+							if (orderId != null) {
+								test.abandonedOrderIds.add(UUID.fromString(orderId));
+							}
+						});
+			}
+		};
+
+		private final int weight;
+
+		Scenario(int weight) {
+			this.weight = weight;
+		}
+
+		abstract CompletableFuture<Void> start(StoreLoadTest test, Random random, long scheduledAt);
+
+		static Scenario pick(Random random) {
+			int total = Arrays.stream(values()).mapToInt(s -> s.weight).sum();
+			int roll = random.nextInt(total);
+			for (Scenario scenario : values()) {
+				roll -= scenario.weight;
+				if (roll < 0) {
+					return scenario;
+				}
+			}
+			return BROWSE;
+		}
+	}
+
+	private CompletableFuture<HttpResponse<String>> send(String step, HttpRequest request, long scheduledAt) {
+		return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+				.handle((response, error) -> {
+					long latency = System.nanoTime() - scheduledAt;
+					if (error != null) {
+						report.record(step, latency, error.getClass().getSimpleName());
+						return null;
+					}
+					report.record(step, latency, response.statusCode() / 100 + "xx");
+					return response;
+				});
+	}
+
+	private HttpRequest.Builder request(String path) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.timeout(Duration.ofSeconds(30))
+				.header("Accept", "application/json");
+	}
+
+	private HttpRequest get(String path) {
+		return request(path).GET().build();
+	}
+
+	private HttpRequest createOrderRequest(Random random) {
+		List<UUID> shuffled = new ArrayList<>(productIds);
+		Collections.shuffle(shuffled, random);
+		List<Map<String, Object>> items = new ArrayList<>();
+		for (int i = 0, count = 1 + random.nextInt(3); i < count; i++) {
+			items.add(Map.of("productId", shuffled.get(i), "quantity", 1 + random.nextInt(3)));
+		}
+		try {
+			return request("/orders")
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(items)))
+					.build();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private String orderId(HttpResponse<String> response) {
+		if (response == null || response.statusCode() / 100 != 2) {
+			return null;
+		}
+		try {
+			JsonNode id = objectMapper.readTree(response.body()).at("/data/id");
+			return id.isMissingNode() ? null : id.asText();
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	// orders only expire after 30 minutes, so abandoned ones are pushed past expiry to keep the sweep in the mix;
+	// checkout orders waiting for their payment request are left alone
+	private void expireAbandonedOrders() {
+		long started = System.nanoTime();
+		try {
+			LocalDateTime expired = LocalDateTime.now(clock).minusMinutes(1);
+			List<Object[]> batch = new ArrayList<>();
+			for (UUID orderId = abandonedOrderIds.poll(); orderId != null; orderId = abandonedOrderIds.poll()) {
+				batch.add(new Object[]{expired, orderId});
+			}
+			jdbcTemplate.batchUpdate(
+					"UPDATE orders SET expires_at = ?, version = version + 1 WHERE id = ? AND status = 'CREATED'", batch);
+			orderScheduler.invalidateExpiredOrders();
+			report.record("expire-sweep", System.nanoTime() - started, "ok");
+		} catch (RuntimeException e) {
+			report.record("expire-sweep", System.nanoTime() - started, e.getClass().getSimpleName());
+		}
+	}
+
+	private List<UUID> createProducts() {
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < LOAD_PRODUCTS; i++) {
+			ProductEntity product = new ProductEntity();
+			product.setId(UUID.randomUUID());
+			product.setName("Load " + UUID.randomUUID());
+			product.setPrice(BigDecimal.valueOf(250 + i, 2));
+			product.setStockQuantity(1_000_000);
+			ids.add(productRepository.save(product).getId());
+		}
+		return ids;
+	}
+}
@@ -79,49 +79,4 @@ class OrderItemRepositoryTest extends StoreDemoApplicationTests {
 
 		assertThat(found).isNotPresent();
 	}
-
-	@Test
-	@DisplayName("Should return true if product exists in active orders (CREATED or PAID)")
-	void existsByProductIdInActiveOrders_shouldReturnTrue() {
-		UUID productId = UUID.randomUUID();
-		ProductEntity product = new ProductEntity();
-		product.setId(productId);
-		product.setName("Active Order Product");
-		product.setPrice(new BigDecimal("1.99"));
-		product.setStockQuantity(20);
-		productRepository.save(product);
-
-		OrderEntity order = new OrderEntity();
-		order.setId(UUID.randomUUID());
-		order.setStatus(OrderStatus.CREATED);
-		order.setCreatedAt(LocalDateTime.now(clock));
-		order.setExpiresAt(LocalDateTime.now(clock).plusMinutes(30));
-		orderRepository.save(order);
-
-		OrderItemEntity item = new OrderItemEntity();
-		item.setId(UUID.randomUUID());
-		item.setOrderEntity(order);
-		item.setProductEntity(product);
-		item.setQuantity(2);
-		item.setPriceSnapshot(product.getPrice());
-		orderItemRepository.save(item);
-
-		boolean exists = orderItemRepository.existsByProductIdInActiveOrders(productId);
-		assertThat(exists).isTrue();
-	}
-
-	@Test
-	@DisplayName("Should return false if product is not in any active orders")
-	void existsByProductIdInActiveOrders_shouldReturnFalse() {
-		UUID productId = UUID.randomUUID();
-		ProductEntity product = new ProductEntity();
-		product.setId(productId);
-		product.setName("Non-active Order Product");
-		product.setPrice(new BigDecimal("2.99"));
-		product.setStockQuantity(50);
-		productRepository.save(product);
-
-		boolean exists = orderItemRepository.existsByProductIdInActiveOrders(productId);
-		assertThat(exists).isFalse();
-	}
 }
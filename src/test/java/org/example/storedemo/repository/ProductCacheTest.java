@@ -0,0 +1,76 @@
+package org.example.storedemo.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.storedemo.StoreDemoApplicationTests;
+import org.example.storedemo.entity.ProductEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest extends StoreDemoApplicationTests {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ProductBatchRepository productBatchRepository;
+
+	@Test
+	@DisplayName("Should serve repeated product reads from the second-level cache and see version bumps")
+	void testEntityRegion() {
+		ProductEntity product = productRepository.save(newProduct("Cached product " + UUID.randomUUID()));
+		Statistics statistics = statistics();
+		long hitsBefore = statistics.getDomainDataRegionStatistics(ProductEntity.CACHE_REGION).getHitCount();
+
+		productRepository.findById(product.getId()).orElseThrow();
+		ProductEntity cached = productRepository.findById(product.getId()).orElseThrow();
+
+		assertThat(statistics.getDomainDataRegionStatistics(ProductEntity.CACHE_REGION).getHitCount())
+				.isGreaterThan(hitsBefore);
+
+		cached.setStockQuantity(7);
+		productRepository.save(cached);
+		ProductEntity reloaded = productRepository.findById(product.getId()).orElseThrow();
+		assertThat(reloaded.getStockQuantity()).isEqualTo(7);
+		assertThat(reloaded.getVersion()).isEqualTo(cached.getVersion() + 1);
+	}
+
+	@Test
+	@DisplayName("Should cache name lookups and drop them after a JDBC batch insert")
+	void testLookupRegionInvalidatedByJdbcInsert() {
+		String name = "Batch cached " + UUID.randomUUID();
+		Statistics statistics = statistics();
+		long hitsBefore = statistics.getQueryRegionStatistics(ProductRepository.LOOKUP_CACHE_REGION).getHitCount();
+
+		assertThat(productRepository.existsByName(name)).isFalse();
+		assertThat(productRepository.existsByName(name)).isFalse();
+		assertThat(statistics.getQueryRegionStatistics(ProductRepository.LOOKUP_CACHE_REGION).getHitCount())
+				.isGreaterThan(hitsBefore);
+
+		productBatchRepository.insertAll(List.of(newProduct(name)));
+
+		assertThat(productRepository.existsByName(name)).isTrue();
+		assertThat(productRepository.findByNameIgnoreCase(name.toUpperCase())).isPresent();
+	}
+
+	private Statistics statistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	private static ProductEntity newProduct(String name) {
+		ProductEntity product = new ProductEntity();
+		product.setId(UUID.randomUUID());
+		product.setName(name);
+		product.setPrice(new BigDecimal("3.50"));
+		product.setStockQuantity(10);
+		return product;
+	}
+}
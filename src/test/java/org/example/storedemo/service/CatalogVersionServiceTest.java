@@ -0,0 +1,44 @@
+package org.example.storedemo.service;
+
+import org.example.storedemo.StoreDemoApplicationTests;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionServiceTest extends StoreDemoApplicationTests {
+
+	@Autowired
+	private CatalogVersionService catalogVersionService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	@DisplayName("Should bump once per committed transaction, including an inner REQUIRES_NEW one")
+	void testBumpPerTransaction() {
+		TransactionTemplate outer = new TransactionTemplate(transactionManager);
+		TransactionTemplate inner = new TransactionTemplate(transactionManager);
+		inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		long before = catalogVersionService.current();
+
+		outer.executeWithoutResult(status -> {
+			catalogVersionService.bumpAfterCommit();
+			catalogVersionService.bumpAfterCommit();
+			inner.executeWithoutResult(innerStatus -> catalogVersionService.bumpAfterCommit());
+			// the inner write is committed and visible already
+			assertThat(catalogVersionService.current()).isEqualTo(before + 1);
+		});
+		assertThat(catalogVersionService.current()).isEqualTo(before + 2);
+
+		outer.executeWithoutResult(status -> {
+			catalogVersionService.bumpAfterCommit();
+			status.setRollbackOnly();
+		});
+		assertThat(catalogVersionService.current()).isEqualTo(before + 2);
+	}
+}
@@ -0,0 +1,128 @@
+package org.example.storedemo.service;
+
+import org.example.storedemo.StoreDemoApplicationTests;
+import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.dto.response.OrderSummaryDto;
+import org.example.storedemo.entity.OrderStatus;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExportServiceTest extends StoreDemoApplicationTests {
+
+	// Sizing for the stress export: -Dstress.exportOrders=1000000
+	private static final int STRESS_ORDERS = Integer.getInteger("stress.exportOrders", 200_000);
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	@DisplayName("Should stream product catalog as CSV with header")
+	void exportProductsCsv() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportProducts(ExportFormat.CSV, out);
+
+		List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+		assertThat(lines.get(0)).isEqualTo("id,name,price,stockQuantity");
+		assertThat(lines).hasSize((int) productRepository.count() + 1);
+		assertThat(lines).anyMatch(line -> line.contains(",Bread,1.49,"));
+	}
+
+	@Test
+	@DisplayName("Should stream one NDJSON line per order in range with its items")
+	void exportOrdersNdjson() throws Exception {
+		ProductEntity product = new ProductEntity();
+		product.setId(UUID.randomUUID());
+		product.setName("ExportProduct" + UUID.randomUUID());
+		product.setPrice(BigDecimal.valueOf(3));
+		product.setStockQuantity(50);
+		productRepository.save(product);
+		LocalDateTime from = LocalDateTime.now(clock).minusSeconds(1);
+		OrderSummaryDto first = orderService.createOrder(List.of(new OrderCreateItemDto(product.getId(), 1)));
+		OrderSummaryDto second = orderService.createOrder(List.of(new OrderCreateItemDto(product.getId(), 2)));
+		orderService.payOrder(second.getOrderId());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportOrders(
+				exportService.resolveOrderRange(from, LocalDateTime.now(clock).plusMinutes(1)),
+				OrderStatus.PAID,
+				ExportFormat.NDJSON,
+				out);
+
+		List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+		assertThat(lines).anyMatch(line -> line.contains(second.getOrderId().toString()) && line.contains("\"quantity\":2"));
+		assertThat(lines).noneMatch(line -> line.contains(first.getOrderId().toString()));
+	}
+
+	@Test
+	@DisplayName("Should reject empty export range")
+	void rejectEmptyRange() {
+		LocalDateTime now = LocalDateTime.now(clock);
+		assertThatThrownBy(() -> exportService.resolveOrderRange(now, now))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	@Tag("stress")
+	@DisplayName("Should stream a large order range with one NDJSON line per order")
+	void exportManyOrdersNdjson() throws Exception {
+		ProductEntity product = new ProductEntity();
+		product.setId(UUID.randomUUID());
+		product.setName("ExportStressProduct" + UUID.randomUUID());
+		product.setPrice(BigDecimal.valueOf(2));
+		product.setStockQuantity(0);
+		productRepository.save(product);
+		// a window of its own, far from the orders other tests create
+		LocalDateTime from = LocalDateTime.of(2001, 1, 1, 0, 0);
+		List<Object[]> orders = new ArrayList<>(STRESS_ORDERS);
+		List<Object[]> items = new ArrayList<>(STRESS_ORDERS);
+		for (int i = 0; i < STRESS_ORDERS; i++) {
+			UUID orderId = UUID.randomUUID();
+			LocalDateTime createdAt = from.plusSeconds(i);
+			orders.add(new Object[] { orderId, OrderStatus.PAID.name(), createdAt, createdAt.plusMinutes(30), createdAt });
+			items.add(new Object[] { UUID.randomUUID(), orderId, product.getId(), 1, product.getPrice() });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO orders (id, status, created_at, expires_at, paid_at, version) VALUES (?, ?, ?, ?, ?, 0)", orders);
+		jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, product_id, quantity, price_snapshot) VALUES (?, ?, ?, ?, ?)", items);
+
+		LineCounter out = new LineCounter();
+		exportService.exportOrders(
+				exportService.resolveOrderRange(from, from.plusSeconds(STRESS_ORDERS)),
+				OrderStatus.PAID,
+				ExportFormat.NDJSON,
+				out);
+
+		assertThat(out.lines).isEqualTo(STRESS_ORDERS);
+	}
+
+	// counts the streamed lines without keeping the export in memory
+	private static final class LineCounter extends OutputStream {
+		private long lines;
+
+		@Override
+		public void write(int b) {
+			if (b == '\n') {
+				lines++;
+			}
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package org.example.storedemo.service;
+
+import org.example.storedemo.StoreDemoApplicationTests;
+import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.dto.response.OrderSummaryDto;
+import org.example.storedemo.entity.OrderEntity;
+import org.example.storedemo.entity.OrderStatus;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.exception.NotFoundException;
+import org.example.storedemo.repository.ArchivedOrderRepository;
+import org.example.storedemo.service.scheduler.OrderArchiveScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderArchiveTest extends StoreDemoApplicationTests {
+
+	@Autowired
+	private OrderArchiveScheduler orderArchiveScheduler;
+
+	@Autowired
+	private ArchivedOrderRepository archivedOrderRepository;
+
+	private UUID productId;
+
+	@BeforeEach
+	void setUp() {
+		ProductEntity product = new ProductEntity();
+		productId = UUID.randomUUID();
+		product.setId(productId);
+		product.setName("ArchiveProduct" + UUID.randomUUID());
+		product.setPrice(BigDecimal.valueOf(4));
+		product.setStockQuantity(100);
+		productRepository.save(product);
+	}
+
+	@Test
+	@DisplayName("Should move old paid order to archive and still serve its summary")
+	void archivePaidOrder() {
+		OrderSummaryDto order = orderService.createOrder(List.of(new OrderCreateItemDto(productId, 2)));
+		orderService.payOrder(order.getOrderId());
+		makeOld(order.getOrderId());
+		ProductEntity product = productRepository.findById(productId).orElseThrow();
+		product.setPrice(BigDecimal.valueOf(7));
+		productRepository.save(product);
+
+		int archived = orderArchiveScheduler.archiveOrdersCreatedBefore(LocalDateTime.now(clock).minusDays(1));
+
+		assertThat(archived).isGreaterThanOrEqualTo(1);
+		assertThat(orderRepository.findById(order.getOrderId())).isNotPresent();
+		assertThat(archivedOrderRepository.findById(order.getOrderId())).isPresent();
+
+		OrderSummaryDto summary = orderService.getOrderSummary(order.getOrderId());
+		assertThat(summary.getStatus()).isEqualTo(OrderStatus.PAID);
+		assertThat(summary.getProducts()).hasSize(1);
+		assertThat(summary.getProducts().get(0).getProductId()).isEqualTo(productId);
+		assertThat(summary.getProducts().get(0).getQuantity()).isEqualTo(2);
+		// archived at the price it was ordered at, before the price change
+		assertThat(summary.getProducts().get(0).getUnitPrice()).isEqualByComparingTo("4");
+		assertThat(summary.getProducts().get(0).getTotalPrice()).isEqualByComparingTo("8");
+	}
+
+	@Test
+	@DisplayName("Should keep active and recent orders in hot tables")
+	void skipActiveAndRecentOrders() {
+		OrderSummaryDto activeOrder = orderService.createOrder(List.of(new OrderCreateItemDto(productId, 1)));
+		makeOld(activeOrder.getOrderId());
+		OrderSummaryDto recentOrder = orderService.createOrder(List.of(new OrderCreateItemDto(productId, 1)));
+		orderService.cancelOrder(recentOrder.getOrderId());
+
+		orderArchiveScheduler.archiveOrdersCreatedBefore(LocalDateTime.now(clock).minusDays(1));
+
+		assertThat(orderRepository.findById(activeOrder.getOrderId())).isPresent();
+		assertThat(orderRepository.findById(recentOrder.getOrderId())).isPresent();
+		assertThat(archivedOrderRepository.findById(activeOrder.getOrderId())).isNotPresent();
+		assertThat(archivedOrderRepository.findById(recentOrder.getOrderId())).isNotPresent();
+	}
+
+	@Test
+	@DisplayName("Should throw when order is neither in hot tables nor in archive")
+	void missingOrder() {
+		assertThatThrownBy(() -> orderService.getOrderSummary(UUID.randomUUID()))
+				.isInstanceOf(NotFoundException.class);
+	}
+
+	private void makeOld(UUID orderId) {
+		OrderEntity entity = orderRepository.findById(orderId).orElseThrow();
+		entity.setCreatedAt(LocalDateTime.now(clock).minusDays(60));
+		orderRepository.save(entity);
+	}
+}
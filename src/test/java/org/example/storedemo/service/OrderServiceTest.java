@@ -1,15 +1,20 @@
 package org.example.storedemo.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.storedemo.StoreDemoApplicationTests;
 import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.dto.response.OrderSummaryDto;
 import org.example.storedemo.entity.OrderStatus;
 import org.example.storedemo.entity.ProductEntity;
 import org.example.storedemo.exception.BadRequestException;
+import org.example.storedemo.exception.NoStockAvailableException;
 import org.example.storedemo.exception.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -20,6 +25,9 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 public class OrderServiceTest extends StoreDemoApplicationTests {
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	private UUID productId;
 
 	@BeforeEach
@@ -41,6 +49,7 @@ public class OrderServiceTest extends StoreDemoApplicationTests {
 
 		assertThat(order.getStatus()).isEqualTo(OrderStatus.CREATED);
 		assertThat(order.getProducts().size()).isEqualTo(1);
+		assertThat(order.getTotalPrice()).isEqualByComparingTo(BigDecimal.valueOf(20));
 	}
 
 	@Test
@@ -90,4 +99,78 @@ public class OrderServiceTest extends StoreDemoApplicationTests {
 		assertThatThrownBy(() -> orderService.payOrder(order.getOrderId()))
 				.isInstanceOf(BadRequestException.class);
 	}
+
+	@Test
+	@DisplayName("Should keep reservation counters in line with order lifecycle")
+	void testReservationCounters() {
+		OrderSummaryDto paidOrder = orderService.createOrder(List.of(new OrderCreateItemDto(productId, 4)));
+		OrderSummaryDto canceledOrder = orderService.createOrder(List.of(new OrderCreateItemDto(productId, 3)));
+
+		ProductEntity reserved = productRepository.findById(productId).orElseThrow();
+		assertThat(reserved.getStockQuantity()).isEqualTo(93);
+		assertThat(reserved.getReservedQuantity()).isEqualTo(7);
+		assertThat(reserved.getActiveOrderCount()).isEqualTo(2);
+
+		orderService.payOrder(paidOrder.getOrderId());
+		orderService.cancelOrder(canceledOrder.getOrderId());
+
+		ProductEntity settled = productRepository.findById(productId).orElseThrow();
+		assertThat(settled.getStockQuantity()).isEqualTo(96);
+		assertThat(settled.getReservedQuantity()).isEqualTo(0);
+		assertThat(settled.getSoldQuantity()).isEqualTo(4);
+		assertThat(settled.getActiveOrderCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Should leave out unrequested order fields and products")
+	void testGetOrderSummarySparseFieldset() {
+		OrderSummaryDto created = orderService.createOrder(List.of(new OrderCreateItemDto(productId, 1)));
+		SparseFieldset fields = SparseFieldset.parse("fields[orders]", "status", OrderService.ORDER_FIELDS);
+
+		OrderSummaryDto summary = orderService.getOrderSummary(created.getOrderId(), fields, SparseFieldset.ALL);
+
+		assertThat(summary.getOrderId()).isEqualTo(created.getOrderId());
+		assertThat(summary.getStatus()).isEqualTo(OrderStatus.CREATED);
+		assertThat(summary.getCreatedAt()).isNull();
+		assertThat(summary.getProducts()).isNull();
+
+		SparseFieldset include = SparseFieldset.parse("include", "products", OrderService.ORDER_INCLUDES);
+		OrderSummaryDto withProducts = orderService.getOrderSummary(created.getOrderId(), SparseFieldset.ALL, include);
+		assertThat(withProducts.getProducts().size()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Should fetch several orders in request order and mark missing ones")
+	void testGetOrderSummaries() {
+		OrderSummaryDto first = orderService.createOrder(List.of(new OrderCreateItemDto(productId, 1)));
+		OrderSummaryDto second = orderService.createOrder(List.of(new OrderCreateItemDto(productId, 2)));
+		UUID missing = UUID.randomUUID();
+
+		List<OrderSummaryDto> summaries = orderService.getOrderSummaries(
+				List.of(second.getOrderId(), missing, first.getOrderId()), SparseFieldset.ALL, SparseFieldset.ALL);
+
+		assertThat(summaries.size()).isEqualTo(3);
+		assertThat(summaries.get(0).getOrderId()).isEqualTo(second.getOrderId());
+		assertThat(summaries.get(0).getProducts().get(0).getQuantity()).isEqualTo(2);
+		assertThat(summaries.get(1).getOrderId()).isEqualTo(missing);
+		assertThat(summaries.get(1).getErrorMessage()).contains("not found");
+		assertThat(summaries.get(2).getOrderId()).isEqualTo(first.getOrderId());
+		assertThat(summaries.get(2).getErrorMessage()).isNull();
+	}
+
+	@Test
+	@DisplayName("Should record order timers and out-of-stock counter")
+	void testOrderMetrics() {
+		double noStockBefore = meterRegistry.counter("store.orders.no_stock").count();
+
+		orderService.createOrder(List.of(new OrderCreateItemDto(productId, 1)));
+		assertThatThrownBy(() -> orderService.createOrder(List.of(new OrderCreateItemDto(productId, 1_000))))
+				.isInstanceOf(NoStockAvailableException.class);
+
+		assertThat(meterRegistry.counter("store.orders.no_stock").count()).isEqualTo(noStockBefore + 1);
+		// one timer per exception tag value
+		long timedCalls = meterRegistry.get("store.orders.create").timers().stream().mapToLong(Timer::count).sum();
+		assertThat(timedCalls).isGreaterThanOrEqualTo(2L);
+	}
+
 }
@@ -0,0 +1,46 @@
+package org.example.storedemo.service;
+
+import org.example.storedemo.StoreDemoApplicationTests;
+import org.example.storedemo.dto.response.ProductImportResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductImportServiceTest extends StoreDemoApplicationTests {
+
+	@Autowired
+	private ProductImportService productImportService;
+
+	@Test
+	@DisplayName("Should import valid rows and report invalid and duplicate rows per line")
+	void importProducts() {
+		String csv = """
+				name,price,stockQuantity
+				Imported Kiwi,0.59,40
+				Imported Lime,0.35,x
+				Imported Kiwi,0.61,10
+				Milk,2.19,120
+				Imported Plum,-1,5
+				Imported Fig,1.20
+				Imported Date,3.10,25
+				""";
+
+		ProductImportResponse response = productImportService.importProducts(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(response.getTotalRows()).isEqualTo(7);
+		assertThat(response.getImportedCount()).isEqualTo(2);
+		assertThat(response.getFailedCount()).isEqualTo(5);
+		assertThat(response.getErrorProducts())
+				.extracting(error -> error.getErrorMessage().substring(0, error.getErrorMessage().indexOf(':')))
+				.containsExactlyInAnyOrder("Line 3", "Line 4", "Line 5", "Line 6", "Line 7");
+		assertThat(productRepository.findByNameIgnoreCase("Imported Kiwi")).isPresent();
+		assertThat(productRepository.findByNameIgnoreCase("Imported Date")).isPresent();
+		assertThat(productRepository.findByNameIgnoreCase("Imported Plum")).isNotPresent();
+	}
+}
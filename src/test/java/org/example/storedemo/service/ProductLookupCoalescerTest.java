@@ -0,0 +1,89 @@
+package org.example.storedemo.service;
+
+import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.util.SingleFlight;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductLookupCoalescerTest {
+
+	private final CatalogVersionService catalogVersionService = new CatalogVersionService();
+	private final ProductLookupCoalescer coalescer = new ProductLookupCoalescer(catalogVersionService,
+			Set.of(ProductLookupCoalescer.BY_ID, ProductLookupCoalescer.BY_NAME), 100);
+	private final SingleFlight<?, ?> byId = coalescer.keySpaces().get(ProductLookupCoalescer.BY_ID);
+	private final UUID productId = UUID.randomUUID();
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	@DisplayName("Should not let a caller join a lookup started before the catalog changed")
+	void testCatalogVersionSeparatesLookups() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<ProductDto> before = CompletableFuture.supplyAsync(() -> coalescer.findById(productId, () -> load("old", release)));
+		waitUntil(() -> loads.get() == 1);
+		CompletableFuture<ProductDto> joined = CompletableFuture.supplyAsync(() -> coalescer.findById(productId, () -> load("unused", release)));
+		waitUntil(() -> byId.getCoalesced() == 1);
+
+		catalogVersionService.bumpAfterCommit();
+		ProductDto after = coalescer.findById(productId, () -> load("new", null));
+
+		assertThat(after.getName()).isEqualTo("new");
+		release.countDown();
+		assertThat(before.get(5, TimeUnit.SECONDS).getName()).isEqualTo("old");
+		assertThat(joined.get(5, TimeUnit.SECONDS).getName()).isEqualTo("old");
+		assertThat(loads).hasValue(2);
+		assertThat(byId.getLeaders()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Should run lookups inside a transaction on their own, without sharing them")
+	void testBypassesInsideTransaction() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<ProductDto> outside = CompletableFuture.supplyAsync(() -> coalescer.findById(productId, () -> load("committed", release)));
+		waitUntil(() -> loads.get() == 1);
+
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			assertThat(coalescer.findById(productId, () -> load("uncommitted", null)).getName()).isEqualTo("uncommitted");
+		} finally {
+			TransactionSynchronizationManager.setActualTransactionActive(false);
+		}
+
+		release.countDown();
+		assertThat(outside.get(5, TimeUnit.SECONDS).getName()).isEqualTo("committed");
+		assertThat(loads).hasValue(2);
+		assertThat(byId.getBypassed()).isEqualTo(1);
+		assertThat(byId.getCoalesced()).isZero();
+	}
+
+	private ProductDto load(String name, CountDownLatch release) {
+		loads.incrementAndGet();
+		if (release != null) {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return new ProductDto(productId, name, BigDecimal.ONE, 1);
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not reached in time").isLessThan(deadline);
+			Thread.sleep(5);
+		}
+	}
+}
@@ -1,25 +1,48 @@
 package org.example.storedemo.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.example.storedemo.StoreDemoApplicationTests;
 import org.example.storedemo.dto.ProductDto;
+import org.example.storedemo.dto.request.OrderCreateItemDto;
 import org.example.storedemo.dto.request.ProductRequest;
+import org.example.storedemo.dto.request.SparseFieldset;
 import org.example.storedemo.dto.response.ProductCreateResponse;
 import org.example.storedemo.exception.BadRequestException;
 import org.example.storedemo.exception.NotFoundException;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ProductServiceTest extends StoreDemoApplicationTests {
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@Test
 	@DisplayName("Should create new product")
 	void testCreateProduct() {
@@ -61,6 +84,16 @@ public class ProductServiceTest extends StoreDemoApplicationTests {
 		assertThrows(NotFoundException.class, () -> productService.deleteProduct(UUID.randomUUID()));
 	}
 
+	@Test
+	@DisplayName("Should not delete product reserved by active order")
+	void testDeleteProductInActiveOrder() {
+		ProductRequest request = new ProductRequest("Reserved Product", BigDecimal.valueOf(3.0), 10);
+		ProductDto dto = productService.createProduct(request).getCreatedProducts().get(0);
+		orderService.createOrder(List.of(new OrderCreateItemDto(dto.getId(), 1)));
+
+		assertThrows(BadRequestException.class, () -> productService.deleteProduct(dto.getId()));
+	}
+
 	@Test
 	@DisplayName("Should update products")
 	void testUpdateProducts() {
@@ -77,6 +110,57 @@ public class ProductServiceTest extends StoreDemoApplicationTests {
 		assertThat(updated.get(0).getPrice()).isEqualTo(BigDecimal.valueOf(20.0));
 	}
 
+	@Test
+	@DisplayName("Should report missing and conflicting products per id without aborting update")
+	void testUpdateProductsPartialFailures() {
+		ProductDto updatable = productService.createProduct(
+				new ProductRequest("Batch Updatable Product", BigDecimal.valueOf(1.0), 10)).getCreatedProducts().get(0);
+		ProductDto conflicting = productService.createProduct(
+				new ProductRequest("Batch Conflicting Product", BigDecimal.valueOf(2.0), 10)).getCreatedProducts().get(0);
+		UUID missingId = UUID.randomUUID();
+
+		ProductRequest staleUpdate = new ProductRequest("Batch Conflicting Product", BigDecimal.valueOf(3.0), 10);
+		staleUpdate.setVersion(conflicting.getVersion() + 1);
+		Map<UUID, ProductRequest> updates = new LinkedHashMap<>();
+		updates.put(updatable.getId(), new ProductRequest("Batch Updatable Product", BigDecimal.valueOf(5.0), 7));
+		updates.put(missingId, new ProductRequest("Batch Missing Product", BigDecimal.valueOf(1.0), 1));
+		updates.put(conflicting.getId(), staleUpdate);
+
+		List<ProductDto> results = productService.updateProduct(updates);
+
+		assertThat(results).hasSize(3);
+		assertThat(results.get(0).getErrorMessage()).isNull();
+		assertThat(results.get(0).getPrice()).isEqualByComparingTo(BigDecimal.valueOf(5.0));
+		assertThat(results.get(1).getId()).isEqualTo(missingId);
+		assertThat(results.get(1).getErrorMessage()).contains("not found");
+		assertThat(results.get(2).getErrorMessage()).contains("does not match");
+		assertThat(productService.findProductById(conflicting.getId()).getPrice())
+				.isEqualByComparingTo(BigDecimal.valueOf(2.0));
+	}
+
+	@Test
+	@DisplayName("Should keep valid rows of a chunk that hit a constraint violation")
+	void testUpdateProductsConstraintViolation() {
+		ProductDto valid = productService.createProduct(
+				new ProductRequest("Chunk Valid Product", BigDecimal.valueOf(1.0), 10)).getCreatedProducts().get(0);
+		ProductDto invalid = productService.createProduct(
+				new ProductRequest("Chunk Invalid Product", BigDecimal.valueOf(2.0), 10)).getCreatedProducts().get(0);
+
+		Map<UUID, ProductRequest> updates = new LinkedHashMap<>();
+		updates.put(valid.getId(), new ProductRequest("Chunk Valid Product", BigDecimal.valueOf(4.0), 8));
+		updates.put(invalid.getId(), new ProductRequest("Chunk Invalid Product", null, 8));
+
+		List<ProductDto> results = productService.updateProduct(updates);
+
+		assertThat(results).hasSize(2);
+		assertThat(results.get(0).getErrorMessage()).isNull();
+		assertThat(results.get(1).getErrorMessage()).contains("constraint");
+		assertThat(productService.findProductById(valid.getId()).getPrice())
+				.isEqualByComparingTo(BigDecimal.valueOf(4.0));
+		assertThat(productService.findProductById(invalid.getId()).getPrice())
+				.isEqualByComparingTo(BigDecimal.valueOf(2.0));
+	}
+
 	@Test
 	@DisplayName("Should throw error for empty update map")
 	void testUpdateEmptyMap() {
@@ -84,4 +168,76 @@ public class ProductServiceTest extends StoreDemoApplicationTests {
 	}
 
 
+	@Test
+	@DisplayName("Should return only requested product fields")
+	void testGetAllProductsSparseFieldset() {
+		SparseFieldset fields = SparseFieldset.parse("fields[products]", "name,price", ProductService.PRODUCT_FIELDS);
+		Page<ProductDto> page = productService.getAllProducts(PageRequest.of(0, 3, Sort.by("name")), fields);
+
+		assertThat(page.getContent()).hasSize(3);
+		assertThat(page.getTotalElements()).isEqualTo(productRepository.count());
+		ProductDto first = page.getContent().get(0);
+		assertThat(first.getId()).isNotNull();
+		assertThat(first.getName()).isNotNull();
+		assertThat(first.getPrice()).isNotNull();
+		assertThat(first.getStockQuantity()).isNull();
+		assertThat(first.getVersion()).isNull();
+	}
+
+	@Test
+	@DisplayName("Should reject unknown sparse fieldset field")
+	void testSparseFieldsetUnknownField() {
+		assertThrows(BadRequestException.class,
+				() -> SparseFieldset.parse("fields[products]", "name,secret", ProductService.PRODUCT_FIELDS));
+		assertThat(SparseFieldset.parse("fields[products]", " name, ,price ", Set.of("name", "price")).fields())
+				.containsExactly("name", "price");
+	}
+
+	@Test
+	@DisplayName("Should reject multi-get above the id limit")
+	void testGetProductsByIdsLimit() {
+		List<UUID> ids = Stream.generate(UUID::randomUUID)
+				.limit(MultiGetIdsValidator.MAX_IDS + 1)
+				.toList();
+
+		assertThrows(BadRequestException.class, () -> productService.getProductsByIds(ids));
+		assertThrows(BadRequestException.class, () -> productService.getProductsByIds(List.of()));
+	}
+
+	@Test
+	@Tag("stress")
+	@DisplayName("Should never answer concurrent product reads with stale data while the database keeps up")
+	void testConcurrentReadsStayFresh() throws Exception {
+		double staleBefore = staleReads();
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		try {
+			List<Future<?>> reads = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				PageRequest page = PageRequest.of(i % 3, 8, Sort.by("name"));
+				reads.add(executor.submit(() -> {
+					RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+					try {
+						productService.getAllProducts(page, SparseFieldset.ALL);
+						assertThat(ResilientReadCache.staleAge()).isNull();
+					} finally {
+						RequestContextHolder.resetRequestAttributes();
+					}
+				}));
+			}
+			for (Future<?> read : reads) {
+				read.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(staleReads()).isEqualTo(staleBefore);
+	}
+
+	private double staleReads() {
+		Counter stale = meterRegistry.find("store.resilience.reads")
+				.tag("endpoint", ProductService.PRODUCTS_LIST_READ)
+				.tag("result", "stale").counter();
+		return stale == null ? 0 : stale.count();
+	}
 }
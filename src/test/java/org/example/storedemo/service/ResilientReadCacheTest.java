@@ -0,0 +1,153 @@
+package org.example.storedemo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.storedemo.exception.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientReadCacheTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CatalogVersionService catalogVersionService = new CatalogVersionService();
+	private ResilientReadCache cache;
+
+	@BeforeEach
+	void setUp() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("app.resilience.endpoints.list.latency-budget", "50ms")
+				.withProperty("app.resilience.endpoints.list.max-stale", "1m")
+				.withProperty("app.resilience.endpoints.strict.latency-budget", "50ms")
+				.withProperty("app.resilience.endpoints.strict.max-stale", "0ms");
+		cache = new ResilientReadCache(environment, catalogVersionService, Clock.systemUTC(), meterRegistry, 100);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	@DisplayName("Should answer callers behind a slow read with the last good result and refresh it from that read")
+	void testServesStaleWhenSlow() throws Exception {
+		assertThat(cache.get("list", "page-0", () -> "v1")).isEqualTo("v1");
+		assertThat(ResilientReadCache.staleAge()).isNull();
+
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> slowRead = CompletableFuture.supplyAsync(() -> cache.get("list", "page-0", () -> {
+			started.countDown();
+			await(release);
+			return "v2";
+		}));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(cache.get("list", "page-0", () -> "unused")).isEqualTo("v1");
+		assertThat(ResilientReadCache.staleAge()).isNotNull();
+		assertThat(meterRegistry.counter("store.resilience.reads", "endpoint", "list", "result", "stale").count()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(slowRead.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		assertThat(cache.get("list", "page-0", () -> "v3")).isEqualTo("v3");
+		assertThat(ResilientReadCache.staleAge()).isNull();
+	}
+
+	@Test
+	@DisplayName("Should wait for the running read when the fallback is older than max-stale")
+	void testWaitsWhenTooStale() throws Exception {
+		cache.get("strict", "page-0", () -> "v1");
+		CountDownLatch started = new CountDownLatch(1);
+		CompletableFuture<String> slowRead = CompletableFuture.supplyAsync(() -> cache.get("strict", "page-0", () -> {
+			started.countDown();
+			sleep(150);
+			return "v2";
+		}));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(cache.get("strict", "page-0", () -> "unused")).isEqualTo("v2");
+		assertThat(ResilientReadCache.staleAge()).isNull();
+		assertThat(slowRead.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+	}
+
+	@Test
+	@DisplayName("Should not let a caller join a read that started before the catalog changed")
+	void testCatalogVersionSeparatesReads() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<String> preWrite = CompletableFuture.supplyAsync(() -> cache.get("list", "page-0", () -> {
+			loads.incrementAndGet();
+			started.countDown();
+			await(release);
+			return "before";
+		}));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+		catalogVersionService.bumpAfterCommit();
+		String postWrite = cache.get("list", "page-0", () -> {
+			loads.incrementAndGet();
+			return "after";
+		});
+		release.countDown();
+
+		assertThat(postWrite).isEqualTo("after");
+		assertThat(preWrite.get(5, TimeUnit.SECONDS)).isEqualTo("before");
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("Should fall back on database errors but pass on API errors")
+	void testFailures() {
+		cache.get("list", "page-0", () -> "v1");
+
+		assertThat(cache.get("list", "page-0", () -> {
+			throw new QueryTimeoutException("timeout");
+		})).isEqualTo("v1");
+		assertThatThrownBy(() -> cache.get("list", "page-0", () -> {
+			throw new NotFoundException("gone");
+		})).isInstanceOf(NotFoundException.class);
+	}
+
+	@Test
+	@DisplayName("Should read endpoints without a budget directly, without any fallback")
+	void testUnconfiguredEndpoint() {
+		cache.get("other", "key", () -> "v1");
+
+		assertThatThrownBy(() -> cache.get("other", "key", () -> {
+			throw new QueryTimeoutException("timeout");
+		})).isInstanceOf(QueryTimeoutException.class);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
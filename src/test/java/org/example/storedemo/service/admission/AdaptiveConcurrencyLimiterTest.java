@@ -0,0 +1,74 @@
+package org.example.storedemo.service.admission;
+
+import org.example.storedemo.service.admission.AdaptiveConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final Duration THRESHOLD = Duration.ofMillis(500);
+
+	@Test
+	@DisplayName("Should keep the reserved share of the limit for critical requests")
+	void testCriticalReserve() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, THRESHOLD, 0.5, 0.2);
+
+		int normal = 0;
+		while (limiter.tryAcquire(Priority.NORMAL)) {
+			normal++;
+		}
+		int critical = 0;
+		while (limiter.tryAcquire(Priority.CRITICAL)) {
+			critical++;
+		}
+
+		assertThat(normal).isEqualTo(8);
+		assertThat(critical).isEqualTo(2);
+		assertThat(limiter.getInFlight()).isEqualTo(10);
+		assertThat(limiter.getRejected(Priority.NORMAL)).isEqualTo(1);
+		assertThat(limiter.getRejected(Priority.CRITICAL)).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Should cut the limit on slow or failed requests and grow it back while saturated")
+	void testAimd() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 12, THRESHOLD, 0.5, 0.2);
+
+		limiter.tryAcquire(Priority.CRITICAL);
+		limiter.release(Duration.ofSeconds(2), false);
+		assertThat(limiter.getLimit()).isEqualTo(5);
+		limiter.tryAcquire(Priority.CRITICAL);
+		limiter.release(Duration.ofMillis(10), true);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+		limiter.tryAcquire(Priority.CRITICAL);
+		limiter.release(Duration.ofSeconds(2), false);
+		assertThat(limiter.getLimit()).as("never below min-limit").isEqualTo(2);
+
+		// one of two slots busy counts as saturated, so each fast completion adds one up to max-limit
+		for (int i = 0; i < 20; i++) {
+			while (limiter.getInFlight() * 2 < limiter.getLimit()) {
+				limiter.tryAcquire(Priority.CRITICAL);
+			}
+			limiter.release(Duration.ofMillis(10), false);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(12);
+	}
+
+	@Test
+	@DisplayName("Should not grow the limit while it is mostly unused")
+	void testNoGrowthWhenIdle() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, THRESHOLD, 0.5, 0.2);
+
+		for (int i = 0; i < 50; i++) {
+			limiter.tryAcquire(Priority.NORMAL);
+			limiter.release(Duration.ofMillis(10), false);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(10);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+}
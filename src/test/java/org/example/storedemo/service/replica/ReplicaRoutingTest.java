@@ -0,0 +1,155 @@
+package org.example.storedemo.service.replica;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The replica is a second in-memory H2 database kept up to date by ReplicaSynchronizer.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+		"app.datasource.replica.enabled=true",
+		"app.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+		"app.datasource.replica.max-lag-ms=600000",
+		"app.datasource.replica.sync-interval-ms=600000"
+})
+class ReplicaRoutingTest {
+
+	@Autowired
+	private ReplicaSynchronizer replicaSynchronizer;
+
+	@Autowired
+	private ReplicaLagTracker replicaLagTracker;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	@DisplayName("Should send read-only transactions to the replica and writes to the primary")
+	void testReadOnlyGoesToReplica() throws Exception {
+		replicaSynchronizer.sync();
+
+		assertThat(databaseName(true)).isEqualToIgnoringCase("routing-replica");
+		assertThat(databaseName(false)).isEqualToIgnoringCase("routing-primary");
+	}
+
+	@Test
+	@DisplayName("Should read a client's own writes from the primary until the replica has applied them")
+	void testReadYourWrites() throws Exception {
+		replicaSynchronizer.sync();
+		MockHttpServletResponse writeResponse = inRequest(new MockHttpServletRequest());
+		ProductEntity product = productRepository.save(newProduct());
+
+		// same request, and then a later request carrying the cookie
+		assertThat(databaseName(true)).isEqualToIgnoringCase("routing-primary");
+		Cookie cookie = writeResponse.getCookie(ReplicaLagTracker.WRITE_SEQUENCE_COOKIE);
+		assertThat(cookie).isNotNull();
+		MockHttpServletRequest followUp = new MockHttpServletRequest();
+		followUp.setCookies(cookie);
+		inRequest(followUp);
+		assertThat(databaseName(true)).isEqualToIgnoringCase("routing-primary");
+		assertThat(productRepository.findById(product.getId())).isPresent();
+
+		// other clients may read the slightly stale replica
+		inRequest(new MockHttpServletRequest());
+		assertThat(databaseName(true)).isEqualToIgnoringCase("routing-replica");
+
+		replicaSynchronizer.sync();
+		inRequest(followUp);
+		assertThat(databaseName(true)).isEqualToIgnoringCase("routing-replica");
+		assertThat(replicaLagTracker.getAppliedSequence()).isEqualTo(replicaLagTracker.currentWriteSequence());
+		assertThat(productRepository.findById(product.getId())).isPresent();
+	}
+
+	@Test
+	@DisplayName("Should not cache what was read from the replica")
+	void testReplicaReadsDoNotPopulateCaches() throws Exception {
+		replicaSynchronizer.sync();
+		ProductEntity synced = productRepository.save(newProduct());
+		replicaSynchronizer.sync();
+		inRequest(new MockHttpServletRequest());
+		ProductEntity unsynced = productRepository.save(newProduct());
+		entityManagerFactory.getCache().evictAll();
+
+		// a client that did not write reads the replica, which has not seen the second product yet
+		inRequest(new MockHttpServletRequest());
+		assertThat(databaseName(true)).isEqualToIgnoringCase("routing-replica");
+		assertThat(productRepository.findById(synced.getId())).isPresent();
+		assertThat(entityManagerFactory.getCache().contains(ProductEntity.class, synced.getId())).isFalse();
+		assertThat(productRepository.findByNameIgnoreCase(unsynced.getName())).isEmpty();
+
+		// the empty replica result must not be served from the query cache to a read on the primary
+		TransactionTemplate primary = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		primary.setReadOnly(false);
+		assertThat(primary.execute(status -> productRepository.findByNameIgnoreCase(unsynced.getName()))).isPresent();
+		assertThat(primary.execute(status -> productRepository.findByNameIgnoreCase(unsynced.getName()))).isPresent();
+	}
+
+	@Test
+	@DisplayName("Should only advance the write sequence for transactions that modified rows")
+	void testOnlyModifyingTransactionsAreWrites() {
+		ProductEntity product = productRepository.save(newProduct());
+		long sequence = replicaLagTracker.currentWriteSequence();
+
+		assertThat(databaseName(false)).isEqualToIgnoringCase("routing-primary");
+		transactionTemplate.executeWithoutResult(status -> productRepository.findById(product.getId()));
+		transactionTemplate.executeWithoutResult(status ->
+				jdbcTemplate.update("UPDATE products SET price = price WHERE id = ?", UUID.randomUUID()));
+		assertThat(replicaLagTracker.currentWriteSequence()).isEqualTo(sequence);
+
+		transactionTemplate.executeWithoutResult(status ->
+				jdbcTemplate.update("UPDATE products SET price = ? WHERE id = ?", new BigDecimal("5.00"), product.getId()));
+		assertThat(replicaLagTracker.currentWriteSequence()).isGreaterThan(sequence);
+	}
+
+	private String databaseName(boolean readOnly) {
+		TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		template.setReadOnly(readOnly);
+		return template.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+	}
+
+	private static MockHttpServletResponse inRequest(MockHttpServletRequest request) {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+		return response;
+	}
+
+	private static ProductEntity newProduct() {
+		ProductEntity product = new ProductEntity();
+		product.setId(UUID.randomUUID());
+		product.setName("Replicated " + UUID.randomUUID());
+		product.setPrice(new BigDecimal("4.20"));
+		product.setStockQuantity(5);
+		return product;
+	}
+}
@@ -0,0 +1,104 @@
+package org.example.storedemo.service.workload;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.storedemo.dto.request.SparseFieldset;
+import org.example.storedemo.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:workload-pools;DB_CLOSE_DELAY=-1",
+		"app.datasource.workloads.enabled=true",
+		"app.datasource.workloads.background.maximumPoolSize=1"
+})
+class WorkloadPoolsTest {
+
+	@Autowired
+	@Qualifier("checkoutDataSource")
+	private HikariDataSource checkoutDataSource;
+
+	@Autowired
+	@Qualifier("backgroundDataSource")
+	private HikariDataSource backgroundDataSource;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Should configure each workload pool from the shared settings plus its own overrides")
+	void testPoolSettings() {
+		assertThat(checkoutDataSource.getPoolName()).isEqualTo("store-checkout");
+		assertThat(checkoutDataSource.getMaximumPoolSize()).isEqualTo(8);
+		assertThat(checkoutDataSource.getConnectionTimeout()).isEqualTo(2000);
+		assertThat(checkoutDataSource.getConnectionTestQuery()).isEqualTo("SELECT 1");
+		assertThat(backgroundDataSource.getMaximumPoolSize()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Should take the connection from the pool of the bound workload")
+	void testTransactionUsesWorkloadPool() {
+		WorkloadType previous = WorkloadContext.enter(WorkloadType.CHECKOUT);
+		try {
+			int activeCheckout = transactionTemplate.execute(status -> {
+				jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+				return checkoutDataSource.getHikariPoolMXBean().getActiveConnections();
+			});
+			assertThat(activeCheckout).isEqualTo(1);
+		} finally {
+			WorkloadContext.restore(previous);
+		}
+		assertThat(checkoutDataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+	}
+
+	@Test
+	@DisplayName("Should bind the annotated workload for the call and unbind it afterwards")
+	void testAnnotatedServiceUsesReadPool() {
+		double readBefore = acquireCount(WorkloadType.READ);
+		double checkoutBefore = acquireCount(WorkloadType.CHECKOUT);
+
+		productService.getAllProducts(PageRequest.of(0, 5), SparseFieldset.ALL);
+
+		assertThat(acquireCount(WorkloadType.READ)).isGreaterThan(readBefore);
+		assertThat(acquireCount(WorkloadType.CHECKOUT)).isEqualTo(checkoutBefore);
+		assertThat(WorkloadContext.current()).isNull();
+	}
+
+	@Test
+	@DisplayName("Should keep the outermost workload for nested calls")
+	void testOutermostWorkloadWins() {
+		WorkloadType outer = WorkloadContext.enter(WorkloadType.BACKGROUND);
+		try {
+			WorkloadType inner = WorkloadContext.enter(WorkloadType.CHECKOUT);
+			assertThat(WorkloadContext.current()).isEqualTo(WorkloadType.BACKGROUND);
+			WorkloadContext.restore(inner);
+			assertThat(WorkloadContext.current()).isEqualTo(WorkloadType.BACKGROUND);
+		} finally {
+			WorkloadContext.restore(outer);
+		}
+		assertThat(WorkloadContext.current()).isNull();
+	}
+
+	private double acquireCount(WorkloadType workload) {
+		Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", workload.poolName()).timer();
+		return acquire == null ? 0 : acquire.count();
+	}
+}
@@ -0,0 +1,71 @@
+package org.example.storedemo.service.workload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Unlike the suites built on StoreDemoApplicationTests, this keeps the production DataSource topology:
+// the lazy proxy over the workload router and its four pools.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:workload-requests;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureMockMvc
+class WorkloadRequestRoutingTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Should serve POST /orders from the checkout pool and GET /products from the read pool")
+	void testRequestsUseTheirOwnPool() throws Exception {
+		ProductEntity product = new ProductEntity();
+		product.setId(UUID.randomUUID());
+		product.setName("Routed " + UUID.randomUUID());
+		product.setPrice(new BigDecimal("2.50"));
+		product.setStockQuantity(10);
+		productRepository.save(product);
+
+		double checkoutBefore = acquireCount(WorkloadType.CHECKOUT);
+		double readBefore = acquireCount(WorkloadType.READ);
+		mockMvc.perform(post("/orders")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[{\"productId\":\"" + product.getId() + "\",\"quantity\":1}]"))
+				.andExpect(status().isOk());
+		assertThat(acquireCount(WorkloadType.CHECKOUT)).isGreaterThan(checkoutBefore);
+		assertThat(acquireCount(WorkloadType.READ)).isEqualTo(readBefore);
+
+		checkoutBefore = acquireCount(WorkloadType.CHECKOUT);
+		readBefore = acquireCount(WorkloadType.READ);
+		mockMvc.perform(get("/products").param("page", "0").param("size", "5"))
+				.andExpect(status().isOk());
+		assertThat(acquireCount(WorkloadType.READ)).isGreaterThan(readBefore);
+		assertThat(acquireCount(WorkloadType.CHECKOUT)).isEqualTo(checkoutBefore);
+	}
+
+	private double acquireCount(WorkloadType workload) {
+		Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", workload.poolName()).timer();
+		return acquire == null ? 0 : acquire.count();
+	}
+}
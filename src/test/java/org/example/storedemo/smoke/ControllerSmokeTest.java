@@ -0,0 +1,139 @@
+package org.example.storedemo.smoke;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Touches every controller of an already running build over HTTP; meant for the native binary, where reflection
+// and resource hints only fail at runtime. Run with ./gradlew smokeTest -Dsmoke.baseUrl=http://localhost:8193
+@Tag("smoke")
+@EnabledIfSystemProperty(named = "smoke.baseUrl", matches = ".+")
+class ControllerSmokeTest {
+
+	private static final String BASE_URL = System.getProperty("smoke.baseUrl");
+	private static final String ADMIN = "Basic " + Base64.getEncoder().encodeToString(
+			(System.getProperty("smoke.admin", "admin:qweqwe")).getBytes(StandardCharsets.UTF_8));
+
+	private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	@DisplayName("Public endpoints: browse, create, read, pay and cancel orders")
+	void testPublicEndpoints() throws Exception {
+		assertThat(send(get("/actuator/health")).statusCode()).isEqualTo(200);
+
+		HttpResponse<String> products = send(get("/products?page=0&size=8"));
+		assertThat(products.statusCode()).isEqualTo(200);
+		String productId = firstId(products);
+		assertThat(send(get("/products?page=0&size=8").header("Accept", "application/cbor")).statusCode()).isEqualTo(200);
+		assertThat(send(get("/products?ids=" + productId)).statusCode()).isEqualTo(200);
+
+		String paidOrderId = createOrder(productId);
+		assertThat(send(get("/orders/" + paidOrderId + "?include=products")).statusCode()).isEqualTo(200);
+		assertThat(send(get("/orders?ids=" + paidOrderId + "," + UUID.randomUUID())).statusCode()).isEqualTo(200);
+		assertThat(send(post("/payments/" + paidOrderId, HttpRequest.BodyPublishers.noBody())).statusCode()).isEqualTo(200);
+
+		String canceledOrderId = createOrder(productId);
+		assertThat(send(request("/orders/" + canceledOrderId).DELETE()).statusCode()).isEqualTo(200);
+	}
+
+	@Test
+	@DisplayName("Admin endpoints: create, import, update, search, stock, orders, export and delete")
+	void testAdminEndpoints() throws Exception {
+		String name = "Smoke " + UUID.randomUUID();
+		HttpResponse<String> created = send(admin(post("/admin/products",
+				json(Map.of("name", name, "price", "1.25", "stockQuantity", 10)))));
+		assertThat(created.statusCode()).isEqualTo(200);
+
+		HttpResponse<String> search = send(admin(get("/admin/products/search?productName=" + name.replace(" ", "%20"))));
+		assertThat(search.statusCode()).isEqualTo(200);
+		String productId = firstId(search);
+
+		HttpResponse<String> imported = send(admin(post("/admin/products/import",
+				HttpRequest.BodyPublishers.ofString("Smoke import " + UUID.randomUUID() + ",2.50,5\n"))
+				.setHeader("Content-Type", "text/csv")));
+		assertThat(imported.statusCode()).isEqualTo(200);
+
+		HttpResponse<String> updated = send(admin(request("/admin/products")
+				.header("Content-Type", "application/json")
+				.method("PATCH", json(Map.of(productId, Map.of("name", name, "price", "1.50", "stockQuantity", 12))))));
+		assertThat(updated.statusCode()).isEqualTo(200);
+
+		for (String path : List.of(
+				"/admin/products/stock",
+				"/admin/orders?fields[orders]=status&include=products".replace("[", "%5B").replace("]", "%5D"),
+				"/admin/export/products?format=csv",
+				"/admin/export/orders?format=ndjson",
+				"/actuator/metrics"
+		)) {
+			assertThat(send(admin(get(path))).statusCode()).as(path).isEqualTo(200);
+		}
+
+		assertThat(send(admin(request("/admin/products/" + productId).DELETE())).statusCode()).isEqualTo(200);
+	}
+
+	@Test
+	@DisplayName("Second-level cache: products are cached in the region configured by hibernate-jcache.conf")
+	void testSecondLevelCache() throws Exception {
+		String productId = firstId(send(get("/products?page=0&size=8")));
+		createOrder(productId);
+		createOrder(productId);
+
+		HttpResponse<String> puts = send(admin(get("/actuator/metrics/hibernate.second.level.cache.puts?tag=region:products")));
+		assertThat(puts.statusCode()).as(puts.body()).isEqualTo(200);
+		assertThat(objectMapper.readTree(puts.body()).at("/measurements/0/value").asDouble()).isPositive();
+	}
+
+	private String createOrder(String productId) throws IOException, InterruptedException {
+		HttpResponse<String> response = send(post("/orders", json(List.of(Map.of("productId", productId, "quantity", 1)))));
+		assertThat(response.statusCode()).as(response.body()).isBetween(200, 201);
+		return objectMapper.readTree(response.body()).at("/data/id").asText();
+	}
+
+	private String firstId(HttpResponse<String> response) throws IOException {
+		JsonNode id = objectMapper.readTree(response.body()).path("data").findValue("id");
+		assertThat(id).as(response.body()).isNotNull();
+		return id.asText();
+	}
+
+	private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+		return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpRequest.Builder request(String path) {
+		return HttpRequest.newBuilder(URI.create(BASE_URL + path)).timeout(Duration.ofSeconds(30));
+	}
+
+	private HttpRequest.Builder get(String path) {
+		return request(path).GET();
+	}
+
+	private HttpRequest.Builder post(String path, HttpRequest.BodyPublisher body) {
+		return request(path).header("Content-Type", "application/json").POST(body);
+	}
+
+	private HttpRequest.Builder admin(HttpRequest.Builder request) {
+		return request.header("Authorization", ADMIN);
+	}
+
+	private HttpRequest.BodyPublisher json(Object body) throws IOException {
+		return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+	}
+}
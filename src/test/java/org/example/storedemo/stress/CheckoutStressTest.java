@@ -0,0 +1,256 @@
+package org.example.storedemo.stress;
+
+import org.example.storedemo.StoreDemoApplicationTests;
+import org.example.storedemo.dto.request.OrderCreateItemDto;
+import org.example.storedemo.dto.response.OrderSummaryDto;
+import org.example.storedemo.entity.ProductEntity;
+import org.example.storedemo.service.scheduler.OrderScheduler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Run with ./gradlew stressTest; excluded from the regular test task.
+// Sizing: -Dstress.threads=200 -Dstress.iterations=20
+@Tag("stress")
+class CheckoutStressTest extends StoreDemoApplicationTests {
+
+	private static final int THREADS = Integer.getInteger("stress.threads", 200);
+	private static final int ITERATIONS = Integer.getInteger("stress.iterations", 20);
+	private static final int PRODUCTS = 8;
+	private static final int INITIAL_STOCK = 500;
+
+	@Autowired
+	private OrderScheduler orderScheduler;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+	@Test
+	@DisplayName("Concurrent create, pay, cancel and expiry keep stock non-negative and conserved")
+	void checkoutUnderContention() throws Exception {
+		for (Operation operation : Operation.values()) {
+			stats.put(operation, new OperationStats());
+		}
+		List<UUID> productIds = createProducts();
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicInteger negativeStockObservations = new AtomicInteger();
+		ExecutorService background = Executors.newFixedThreadPool(2);
+		Future<?> expiry = background.submit(() -> expireWhileRunning(running));
+		Future<?> monitor = background.submit(() -> {
+			while (running.get()) {
+				negativeStockObservations.addAndGet(countNegativeStock(productIds));
+				sleep(20);
+			}
+		});
+
+		ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			long seed = t;
+			futures.add(workers.submit(() -> {
+				start.await();
+				runWorker(new Random(seed), productIds);
+				return null;
+			}));
+		}
+
+		long startedAt = System.nanoTime();
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(10, TimeUnit.MINUTES);
+		}
+		double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+		running.set(false);
+		expiry.get(1, TimeUnit.MINUTES);
+		monitor.get(1, TimeUnit.MINUTES);
+		workers.shutdown();
+		background.shutdown();
+
+		report(elapsedSeconds);
+
+		assertThat(negativeStockObservations.get()).isZero();
+		for (UUID productId : productIds) {
+			ProductEntity product = productRepository.findById(productId).orElseThrow();
+			assertThat(product.getStockQuantity()).isGreaterThanOrEqualTo(0);
+			assertThat(product.getReservedQuantity()).isGreaterThanOrEqualTo(0);
+			assertThat(product.getStockQuantity() + product.getReservedQuantity() + product.getSoldQuantity())
+					.as("conservation for %s", product.getName())
+					.isEqualTo(INITIAL_STOCK);
+			assertThat(product.getReservedQuantity()).isEqualTo(sumQuantity(productId, "CREATED"));
+			assertThat(product.getSoldQuantity()).isEqualTo(sumQuantity(productId, "PAID"));
+			assertThat(product.getActiveOrderCount()).isEqualTo(countActiveOrders(productId));
+		}
+		assertThat(stats.get(Operation.CREATE).successes()).isPositive();
+	}
+
+	private void runWorker(Random random, List<UUID> productIds) {
+		for (int i = 0; i < ITERATIONS; i++) {
+			List<OrderCreateItemDto> items = randomItems(random, productIds);
+			OrderSummaryDto order = timed(Operation.CREATE, () -> orderService.createOrder(items));
+			if (order == null) {
+				continue;
+			}
+
+			int action = random.nextInt(10);
+			if (action < 4) {
+				timed(Operation.PAY, () -> orderService.payOrder(order.getOrderId()));
+			} else if (action < 7) {
+				timed(Operation.CANCEL, () -> orderService.cancelOrder(order.getOrderId()));
+			}
+			// the rest stay reserved for the expiry thread
+		}
+	}
+
+	private void expireWhileRunning(AtomicBoolean running) {
+		while (running.get()) {
+			// push a few open orders past their expiry, bumping the version like a real update would
+			jdbcTemplate.update("""
+					UPDATE orders SET expires_at = ?, version = version + 1
+					WHERE id IN (SELECT id FROM orders WHERE status = 'CREATED' ORDER BY RAND() LIMIT 5)
+					""", LocalDateTime.now(clock).minusMinutes(1));
+			timed(Operation.EXPIRE_SWEEP, () -> {
+				orderScheduler.invalidateExpiredOrders();
+				return Boolean.TRUE;
+			});
+			sleep(50);
+		}
+	}
+
+	private <T> T timed(Operation operation, Supplier<T> call) {
+		long started = System.nanoTime();
+		try {
+			T result = call.get();
+			stats.get(operation).success(System.nanoTime() - started);
+			return result;
+		} catch (RuntimeException e) {
+			stats.get(operation).failure(e);
+			return null;
+		}
+	}
+
+	private List<OrderCreateItemDto> randomItems(Random random, List<UUID> productIds) {
+		List<UUID> shuffled = new ArrayList<>(productIds);
+		Collections.shuffle(shuffled, random);
+		List<OrderCreateItemDto> items = new ArrayList<>();
+		for (int i = 0, count = 1 + random.nextInt(3); i < count; i++) {
+			items.add(new OrderCreateItemDto(shuffled.get(i), 1 + random.nextInt(3)));
+		}
+		return items;
+	}
+
+	private List<UUID> createProducts() {
+		String prefix = "Stress " + UUID.randomUUID() + " ";
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			ProductEntity product = new ProductEntity();
+			product.setId(UUID.randomUUID());
+			product.setName(prefix + i);
+			product.setPrice(BigDecimal.valueOf(100 + i, 2));
+			product.setStockQuantity(INITIAL_STOCK);
+			ids.add(productRepository.save(product).getId());
+		}
+		return ids;
+	}
+
+	private int countNegativeStock(List<UUID> productIds) {
+		int negative = 0;
+		for (UUID productId : productIds) {
+			Integer count = jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM products WHERE id = ? AND (stock_quantity < 0 OR reserved_quantity < 0)",
+					Integer.class, productId);
+			negative += count == null ? 0 : count;
+		}
+		return negative;
+	}
+
+	private int sumQuantity(UUID productId, String status) {
+		Integer sum = jdbcTemplate.queryForObject("""
+				SELECT COALESCE(SUM(i.quantity), 0) FROM order_items i JOIN orders o ON o.id = i.order_id
+				WHERE i.product_id = ? AND o.status = ?
+				""", Integer.class, productId, status);
+		return sum == null ? 0 : sum;
+	}
+
+	private int countActiveOrders(UUID productId) {
+		Integer count = jdbcTemplate.queryForObject("""
+				SELECT COUNT(DISTINCT o.id) FROM order_items i JOIN orders o ON o.id = i.order_id
+				WHERE i.product_id = ? AND o.status IN ('CREATED', 'PAID')
+				""", Integer.class, productId);
+		return count == null ? 0 : count;
+	}
+
+	private void report(double elapsedSeconds) {
+		System.out.printf("%nCheckout stress: %d threads x %d iterations in %.1f s%n", THREADS, ITERATIONS, elapsedSeconds);
+		System.out.printf("%-13s %8s %8s %10s %9s %9s %9s %9s  %s%n",
+				"operation", "ok", "failed", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "failures");
+		for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+			OperationStats s = entry.getValue();
+			System.out.printf("%-13s %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f  %s%n",
+					entry.getKey(), s.successes(), s.failureCount(), s.successes() / elapsedSeconds,
+					s.percentileMillis(0.50), s.percentileMillis(0.95), s.percentileMillis(0.99), s.percentileMillis(1.0),
+					s.failures);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private enum Operation {
+		CREATE, PAY, CANCEL, EXPIRE_SWEEP
+	}
+
+	private static class OperationStats {
+		private final List<Long> latenciesNanos = Collections.synchronizedList(new ArrayList<>());
+		private final Map<String, Integer> failures = new ConcurrentSkipListMap<>();
+
+		void success(long nanos) {
+			latenciesNanos.add(nanos);
+		}
+
+		void failure(RuntimeException e) {
+			failures.merge(e.getClass().getSimpleName(), 1, Integer::sum);
+		}
+
+		int successes() {
+			return latenciesNanos.size();
+		}
+
+		int failureCount() {
+			return failures.values().stream().mapToInt(Integer::intValue).sum();
+		}
+
+		double percentileMillis(double percentile) {
+			long[] sorted;
+			synchronized (latenciesNanos) {
+				sorted = latenciesNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+			}
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+			return sorted[Math.max(index, 0)] / 1e6;
+		}
+	}
+}
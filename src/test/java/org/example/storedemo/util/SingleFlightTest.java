@@ -0,0 +1,110 @@
+package org.example.storedemo.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+	private static final int CALLERS = 8;
+
+	@Test
+	@DisplayName("Should run one loader for concurrent calls with the same key and share its result")
+	void testCoalescesConcurrentCalls() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>(100);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<String>> results = runConcurrently(CALLERS, () -> flight.execute("apple", () -> {
+			loads.incrementAndGet();
+			await(release);
+			return "Apple";
+		}));
+		waitUntil(() -> flight.getCoalesced() == CALLERS - 1);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Apple");
+		}
+		assertThat(loads).hasValue(1);
+		assertThat(flight.getLeaders()).isEqualTo(1);
+		assertThat(flight.coalescingRatio()).isEqualTo((double) (CALLERS - 1) / CALLERS);
+		assertThat(flight.inFlightKeys()).isZero();
+	}
+
+	@Test
+	@DisplayName("Should hand the leader's exception to every waiter and forget the key afterwards")
+	void testSharesFailure() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>(100);
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<String>> results = runConcurrently(2, () -> flight.execute("missing", () -> {
+			await(release);
+			throw new IllegalStateException("not found");
+		}));
+		waitUntil(() -> flight.getCoalesced() == 1);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasRootCauseInstanceOf(IllegalStateException.class);
+		}
+		assertThat(flight.execute("missing", () -> "found later")).isEqualTo("found later");
+	}
+
+	@Test
+	@DisplayName("Should let callers load on their own once the key space is full")
+	void testBypassWhenFull() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<String>> blocked = runConcurrently(1, () -> flight.execute("first", () -> {
+			await(release);
+			return "first";
+		}));
+		waitUntil(() -> flight.inFlightKeys() == 1);
+
+		assertThat(flight.execute("second", () -> "second")).isEqualTo("second");
+		assertThat(flight.getBypassed()).isEqualTo(1);
+		release.countDown();
+		assertThat(blocked.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("first");
+	}
+
+	private static List<Future<String>> runConcurrently(int callers, Callable<String> call) {
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < callers; i++) {
+			results.add(executor.submit(call));
+		}
+		executor.shutdown();
+		return results;
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not reached in time").isLessThan(deadline);
+			Thread.sleep(5);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package org.example.storedemo.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidIntMapTest {
+
+	@Test
+	@DisplayName("Should merge quantities for repeated keys and keep insertion order")
+	void testAddToAndOrder() {
+		UUID first = UUID.randomUUID();
+		UUID second = UUID.randomUUID();
+		UuidIntMap map = new UuidIntMap(4);
+
+		map.addTo(first, 2);
+		map.addTo(second, 5);
+		map.addTo(first, 3);
+
+		assertThat(map.size()).isEqualTo(2);
+		assertThat(map.get(first, -1)).isEqualTo(5);
+		assertThat(map.get(second, -1)).isEqualTo(5);
+		assertThat(map.get(UUID.randomUUID(), -1)).isEqualTo(-1);
+		assertThat(map.keys()).containsExactly(first, second);
+		assertThat(map.valueAt(0)).isEqualTo(5);
+	}
+
+	@Test
+	@DisplayName("Should match HashMap behaviour across growth and clear")
+	void testGrowAndClear() {
+		Random random = new Random(7);
+		UuidIntMap map = new UuidIntMap(2);
+		Map<UUID, Integer> expected = new HashMap<>();
+
+		for (int i = 0; i < 5_000; i++) {
+			// narrow msb range forces collisions on the low bits
+			UUID key = new UUID(random.nextInt(64), random.nextInt(2_000));
+			int delta = random.nextInt(10);
+			map.addTo(key, delta);
+			expected.merge(key, delta, Integer::sum);
+		}
+
+		assertThat(map.size()).isEqualTo(expected.size());
+		expected.forEach((key, value) -> assertThat(map.get(key, -1)).isEqualTo(value));
+
+		map.clear();
+		assertThat(map.isEmpty()).isTrue();
+		assertThat(map.containsKey(expected.keySet().iterator().next())).isFalse();
+
+		UUID reused = UUID.randomUUID();
+		map.put(reused, 7);
+		assertThat(map.keys()).isEqualTo(List.of(reused));
+		assertThat(map.get(reused, 0)).isEqualTo(7);
+	}
+}
@@ -0,0 +1,69 @@
+#!/bin/bash
+
+# Builds an AppCDS archive from a training run and compares time-to-ready (readiness probe answering 200)
+# for the default startup, the fast-start profile, and fast-start on top of the archive.
+# Usage: RUNS=5 ./startup-cds.sh
+
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+RUNS=${RUNS:-5}
+PORT=${PORT:-8193}
+WORK_DIR="${SCRIPT_DIR}/build/cds"
+REPORT="${WORK_DIR}/startup-times.txt"
+COMMON_ARGS="--server.port=${PORT} --management.endpoint.health.probes.enabled=true"
+
+cd "${SCRIPT_DIR}"
+
+echo "Building boot jar ..."
+./gradlew -q bootJar
+JAR=$(ls build/libs/*.jar | grep -v -- '-plain.jar' | head -1)
+
+echo "Extracting ${JAR} to ${WORK_DIR} ..."
+rm -rf "${WORK_DIR}"
+java -Djarmode=tools -jar "${JAR}" extract --destination "${WORK_DIR}"
+APP_JAR="${WORK_DIR}/$(basename "${JAR}")"
+
+echo "Training run ..."
+java -XX:ArchiveClassesAtExit="${WORK_DIR}/application.jsa" -Dspring.context.exit=onRefresh \
+	-jar "${APP_JAR}" --spring.profiles.active=store,fast-start ${COMMON_ARGS} > "${WORK_DIR}/training.log" 2>&1
+
+# prints milliseconds from launch until the readiness probe succeeds
+time_to_ready() {
+	local log_file=$1
+	shift
+	local started=$(date +%s%N)
+	java "$@" > "${log_file}" 2>&1 &
+	local pid=$!
+	until curl -sf "http://localhost:${PORT}/actuator/health/readiness" > /dev/null; do
+		if ! kill -0 "${pid}" 2> /dev/null; then
+			echo "Application exited before becoming ready, see ${log_file}" >&2
+			exit 1
+		fi
+		sleep 0.05
+	done
+	local ready=$(date +%s%N)
+	kill "${pid}"
+	wait "${pid}" 2> /dev/null || true
+	echo $(( (ready - started) / 1000000 ))
+}
+
+measure() {
+	local label=$1
+	shift
+	local times=()
+	for run in $(seq 1 "${RUNS}"); do
+		times+=("$(time_to_ready "${WORK_DIR}/${label}-${run}.log" "$@")")
+	done
+	local sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+	printf '%-22s median %6s ms   min %6s ms   runs: %s\n' \
+		"${label}" "${sorted[$(( RUNS / 2 ))]}" "${sorted[0]}" "${times[*]}" | tee -a "${REPORT}"
+}
+
+: > "${REPORT}"
+measure default -jar "${APP_JAR}" --spring.profiles.active=store ${COMMON_ARGS}
+measure fast-start -jar "${APP_JAR}" --spring.profiles.active=store,fast-start ${COMMON_ARGS}
+measure fast-start-cds -XX:SharedArchiveFile="${WORK_DIR}/application.jsa" \
+	-jar "${APP_JAR}" --spring.profiles.active=store,fast-start ${COMMON_ARGS}
+
+echo "Startup times written to ${REPORT}"